@@ -0,0 +1,79 @@
+package com.ashanhimantha.product_service.bulkhead;
+
+import com.ashanhimantha.product_service.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many callers run one class of work at once. A caller that cannot get a permit within
+ * maxWaitMs is rejected with ServiceOverloadedException (503) rather than queueing behind the others.
+ * Usage: enter(), then exit() in a finally block.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMs, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(maxConcurrent);
+        Gauge.builder("bulkhead.active", this, Bulkhead::active)
+                .tag("bulkhead", name)
+                .description("Calls currently running in the bulkhead")
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.max", this, bulkhead -> bulkhead.maxConcurrent)
+                .tag("bulkhead", name)
+                .description("Concurrency limit of the bulkhead")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("bulkhead.rejected")
+                .tag("bulkhead", name)
+                .description("Calls rejected because the bulkhead was full")
+                .register(meterRegistry);
+    }
+
+    public void enter() {
+        if (!tryEnter()) {
+            throw new ServiceOverloadedException("Too many concurrent " + name + " requests, please retry shortly");
+        }
+    }
+
+    /**
+     * Returns false (and counts a rejection) when no permit frees up within maxWaitMs
+     */
+    public boolean tryEnter() {
+        boolean acquired;
+        try {
+            acquired = maxWaitMs > 0
+                    ? permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)
+                    : permits.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+        }
+        return acquired;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
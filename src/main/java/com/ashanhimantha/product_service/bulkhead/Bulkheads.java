@@ -0,0 +1,46 @@
+package com.ashanhimantha.product_service.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The service's bulkheads. Keeping admin-write below the Hikari pool size (and storage-io below the
+ * admin limit) means slow admin uploads can never hold every connection or request thread, so
+ * storefront reads always have capacity left.
+ */
+@Component
+public class Bulkheads {
+
+    public static final String PUBLIC_READ = "public-read";
+    public static final String ADMIN_WRITE = "admin-write";
+    public static final String STORAGE_IO = "storage-io";
+
+    private final Bulkhead publicRead;
+    private final Bulkhead adminWrite;
+    private final Bulkhead storageIo;
+
+    public Bulkheads(MeterRegistry meterRegistry,
+                     @Value("${bulkhead.public-read.max-concurrent:150}") int publicReadMax,
+                     @Value("${bulkhead.public-read.max-wait-ms:50}") long publicReadWaitMs,
+                     @Value("${bulkhead.admin-write.max-concurrent:4}") int adminWriteMax,
+                     @Value("${bulkhead.admin-write.max-wait-ms:500}") long adminWriteWaitMs,
+                     @Value("${bulkhead.storage-io.max-concurrent:3}") int storageIoMax,
+                     @Value("${bulkhead.storage-io.max-wait-ms:2000}") long storageIoWaitMs) {
+        this.publicRead = new Bulkhead(PUBLIC_READ, publicReadMax, publicReadWaitMs, meterRegistry);
+        this.adminWrite = new Bulkhead(ADMIN_WRITE, adminWriteMax, adminWriteWaitMs, meterRegistry);
+        this.storageIo = new Bulkhead(STORAGE_IO, storageIoMax, storageIoWaitMs, meterRegistry);
+    }
+
+    public Bulkhead publicRead() {
+        return publicRead;
+    }
+
+    public Bulkhead adminWrite() {
+        return adminWrite;
+    }
+
+    public Bulkhead storageIo() {
+        return storageIo;
+    }
+}
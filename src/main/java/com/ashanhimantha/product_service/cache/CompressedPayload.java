@@ -0,0 +1,16 @@
+package com.ashanhimantha.product_service.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A serialized JSON response kept both as-is and gzip-compressed, so the
+ * compression cost is paid once when the payload is built rather than per request.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CompressedPayload {
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String contentHash; // Hex digest of the identity bytes, used for ETags
+}
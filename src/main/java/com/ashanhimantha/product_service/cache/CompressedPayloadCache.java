@@ -0,0 +1,144 @@
+package com.ashanhimantha.product_service.cache;
+
+import com.ashanhimantha.product_service.datasource.PrimaryReadContext;
+import com.ashanhimantha.product_service.entity.enums.AggregateType;
+import com.ashanhimantha.product_service.service.CatalogChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded LRU cache of pre-serialized, pre-compressed public responses
+ * (category lists, frequently requested product details).
+ * Entries are invalidated after catalog changes on this instance commit. A generation counter stops a
+ * reader that loaded data before an invalidation from re-inserting the stale payload. Changes made
+ * through other instances are never seen here, so every entry also expires after a fixed TTL, which
+ * bounds how long an instance can serve catalog data older than another instance's write.
+ * Loads that fill the cache read from the primary: right after an invalidation the replica
+ * may not have replayed the change yet, and a payload built from it would stay cached.
+ */
+@Component
+@Slf4j
+public class CompressedPayloadCache {
+
+    public static final String CATEGORY_PREFIX = "categories:";
+    public static final String PRODUCT_PREFIX = "product:";
+
+    private final ObjectMapper objectMapper;
+    private final int gzipLevel;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, CacheEntry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public CompressedPayloadCache(ObjectMapper objectMapper,
+                                  @Value("${catalog.cache.gzip-level:9}") int gzipLevel,
+                                  @Value("${catalog.cache.max-entries:1000}") int maxEntries,
+                                  @Value("${catalog.cache.ttl-seconds:30}") long ttlSeconds) {
+        this(objectMapper, gzipLevel, maxEntries, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    CompressedPayloadCache(ObjectMapper objectMapper, int gzipLevel, int maxEntries, Duration ttl, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.gzipLevel = gzipLevel;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public CompressedPayload get(String key, Supplier<?> loader) {
+        CacheEntry cached = entries.get(key);
+        if (cached != null) {
+            if (clock.instant().isBefore(cached.expiresAt)) {
+                return cached.payload;
+            }
+            entries.remove(key, cached);
+        }
+
+        long observedGeneration = generation.get();
+        Instant loadedAt = clock.instant(); // Age counts from before the load, so it never exceeds the TTL
+        CompressedPayload payload = compress(loadFromPrimary(loader));
+        if (generation.get() == observedGeneration) {
+            entries.put(key, new CacheEntry(payload, loadedAt.plus(ttl)));
+        }
+        return payload;
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.getEventType().getAggregateType() == AggregateType.PRODUCT) {
+            entries.remove(PRODUCT_PREFIX + event.getAggregateId());
+        } else {
+            // Category data is embedded in every product response
+            entries.clear();
+        }
+    }
+
+    private Object loadFromPrimary(Supplier<?> loader) {
+        if (PrimaryReadContext.isPrimaryForced()) {
+            return loader.get();
+        }
+        PrimaryReadContext.forcePrimary();
+        try {
+            return loader.get();
+        } finally {
+            PrimaryReadContext.clear();
+        }
+    }
+
+    private static final class CacheEntry {
+        private final CompressedPayload payload;
+        private final Instant expiresAt;
+
+        private CacheEntry(CompressedPayload payload, Instant expiresAt) {
+            this.payload = payload;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private CompressedPayload compress(Object value) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(value);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(identity.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer) {
+                {
+                    def.setLevel(gzipLevel);
+                }
+            }) {
+                gzip.write(identity);
+            }
+            byte[] compressed = buffer.toByteArray();
+            log.debug("Compressed cached payload from {} to {} bytes", identity.length, compressed.length);
+            return new CompressedPayload(identity, compressed, DigestUtils.md5DigestAsHex(identity));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cached payload", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
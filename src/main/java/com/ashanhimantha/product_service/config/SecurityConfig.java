@@ -1,14 +1,22 @@
 package com.ashanhimantha.product_service.config;
 
+import com.ashanhimantha.product_service.security.CachingJwtAuthenticationManager;
+import com.ashanhimantha.product_service.security.PublicRequestMatcher;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.annotation.Order;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
@@ -17,92 +25,100 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity // Essential for @PreAuthorize to work
 public class SecurityConfig {
 
+    /**
+     * Storefront reads, API docs, health checks and media need no authentication. They bypass the
+     * security filter chain entirely (no SecurityContext, no anonymous token); anything else goes to
+     * the JWT-protected chain below, including non-read methods on these paths.
+     */
+    private static final RequestMatcher PUBLIC_REQUESTS = PublicRequestMatcher.builder()
+            .anyMethod("/swagger-ui", "/swagger-ui.html", "/v3/api-docs", "/api-docs", "/swagger-resources", "/webjars")
+            .anyMethod("/actuator/health", "/actuator/info") // Metrics require a token
+            .reads("/api/v1/categories", "/api/v1/products", "/api/v1/category-types")
+            .reads("/media") // Images served by the local blob store (storage.type=local)
+            .build();
+
     private final String jwkSetUri;
 
+    @Value("${security.jwt.jwk-cache-ttl-seconds:3600}")
+    private long jwkCacheTtlSeconds;
+
+    @Value("${security.jwt.jwk-refresh-ahead-seconds:60}")
+    private long jwkRefreshAheadSeconds;
+
+    @Value("${security.jwt.jwk-refresh-timeout-seconds:15}")
+    private long jwkRefreshTimeoutSeconds;
+
+    @Value("${security.jwt.cache.max-entries:10000}")
+    private int authenticationCacheMaxEntries;
+
     public SecurityConfig(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri) {
         this.jwkSetUri = jwkSetUri;
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri(this.jwkSetUri).build();
+    public JwtDecoder jwtDecoder() throws MalformedURLException {
+        // Keys are cached and refreshed in the background before they expire, so no request waits on the JWKS endpoint
+        JWKSource<SecurityContext> jwkSource = JWKSourceBuilder.create(URI.create(this.jwkSetUri).toURL())
+                .cache(Duration.ofSeconds(jwkCacheTtlSeconds).toMillis(), Duration.ofSeconds(jwkRefreshTimeoutSeconds).toMillis())
+                .refreshAheadCache(Duration.ofSeconds(jwkRefreshAheadSeconds).toMillis(), true)
+                .build();
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims (exp, nbf) are checked by the decoder's default Spring validators, as with withJwkSetUri
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(jwtProcessor);
     }
 
     @Bean
-    @Order(1)
-    public SecurityFilterChain publicSecurityFilterChain(HttpSecurity http) throws Exception {
-        // First filter chain for public GET endpoints only - NO JWT validation
-        http.securityMatcher(request -> {
-                    String path = request.getServletPath();
-                    String method = request.getMethod();
-
-                    // Allow Swagger/OpenAPI endpoints
-                    if (path.startsWith("/swagger-ui") ||
-                        path.startsWith("/v3/api-docs") ||
-                        path.startsWith("/api-docs") ||
-                        path.startsWith("/swagger-resources") ||
-                        path.startsWith("/webjars/") ||
-                        path.equals("/swagger-ui.html")) {
-                        return true;
-                    }
-
-                    // Allow actuator endpoints in the public chain
-                    if (path.startsWith("/actuator")) {
-                        return true;
-                    }
-
-                    return "GET".equals(method) &&
-                           !path.contains("/admin") && // Exclude any admin endpoints
-                           (path.startsWith("/api/v1/categories") ||
-                            path.startsWith("/api/v1/products") ||
-                            path.startsWith("/api/v1/category-types"));
-                })
-                .csrf(AbstractHttpConfigurer::disable)
-                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authorizeHttpRequests(authorize -> authorize
-                        // Swagger UI and OpenAPI endpoints
-                        .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
-                        // Public GET endpoints
-                        .requestMatchers(HttpMethod.GET, "/api/v1/categories/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/v1/products/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/v1/category-types/**").permitAll()
-                        .anyRequest().denyAll() // This should never be reached due to securityMatcher
-                );
-
-
-        return http.build();
+    public WebSecurityCustomizer publicEndpointsCustomizer() {
+        return web -> web.ignoring().requestMatchers(PUBLIC_REQUESTS);
     }
 
     @Bean
-    @Order(2)
-    public SecurityFilterChain protectedSecurityFilterChain(HttpSecurity http) throws Exception {
-        // Second filter chain for all other endpoints - WITH JWT validation
+    public SecurityFilterChain protectedSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
+        // Filter chain for all non-public endpoints - WITH JWT validation
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize.anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                        .jwt(jwt -> jwt.authenticationManager(jwtAuthenticationManager(jwtDecoder)))
                 );
 
         return http.build();
     }
 
 
+    /**
+     * Signature verification and authority mapping run once per token, not once per request
+     */
+    private AuthenticationManager jwtAuthenticationManager(JwtDecoder jwtDecoder) {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(jwtAuthenticationConverter());
+        return new CachingJwtAuthenticationManager(provider, authenticationCacheMaxEntries, Clock.systemUTC());
+    }
+
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
@@ -116,10 +132,13 @@ public class SecurityConfig {
             Collection<GrantedAuthority> standardAuthorities = grantedAuthoritiesConverter.convert(jwt);
             Collection<GrantedAuthority> groupAuthorities = groupAuthoritiesConverter.convert(jwt);
 
-            return Stream.concat(
-                    standardAuthorities.stream(),
-                    groupAuthorities != null ? groupAuthorities.stream() : Stream.empty()
-            ).collect(Collectors.toList());
+            int groupCount = groupAuthorities != null ? groupAuthorities.size() : 0;
+            List<GrantedAuthority> authorities = new ArrayList<>(standardAuthorities.size() + groupCount);
+            authorities.addAll(standardAuthorities);
+            if (groupAuthorities != null) {
+                authorities.addAll(groupAuthorities);
+            }
+            return authorities;
         };
 
         converter.setJwtGrantedAuthoritiesConverter(combinedConverter);
@@ -1,10 +1,13 @@
 package com.ashanhimantha.product_service.controller;
 
+import com.ashanhimantha.product_service.cache.CompressedPayload;
 import com.ashanhimantha.product_service.dto.response.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 @ApiResponses(value = {
@@ -50,6 +53,11 @@ public abstract class AbstractController {
                 .body(ApiResponse.success(message, data));
     }
 
+    protected <T> ResponseEntity<ApiResponse<T>> accepted(String message, T data) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(message, data));
+    }
+
     protected ResponseEntity<ApiResponse<Void>> noContent(String message) {
         return ResponseEntity.status(HttpStatus.NO_CONTENT)
                 .body(ApiResponse.success(message, null));
@@ -58,4 +66,63 @@ public abstract class AbstractController {
     protected <T> ResponseEntity<ApiResponse<T>> error(String message, HttpStatus status) {
         return ResponseEntity.status(status).body(ApiResponse.error(message));
     }
+
+    /**
+     * Serve a cached JSON payload, gzip-encoded when the client accepts it.
+     * Each encoding gets its own strong ETag so conditional requests return 304.
+     */
+    protected ResponseEntity<byte[]> compressed(CompressedPayload payload, String acceptEncoding, String ifNoneMatch) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = "\"" + payload.getContentHash() + (gzip ? "-gzip" : "") + "\"";
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getIdentity());
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed (or covered by "*") with a non-zero q-value.
+     * An explicit gzip entry wins over "*", so "gzip;q=0, *" still refuses gzip.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        double wildcard = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                        && parameter.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0; // Malformed weight: do not take it as consent
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                return quality > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard > 0;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.ashanhimantha.product_service.controller;
 
+import com.ashanhimantha.product_service.cache.CompressedPayload;
+import com.ashanhimantha.product_service.cache.CompressedPayloadCache;
 import com.ashanhimantha.product_service.dto.request.CategoryRequest;
 import com.ashanhimantha.product_service.dto.response.ApiResponse;
 import com.ashanhimantha.product_service.dto.response.CategoryResponse;
@@ -8,12 +10,14 @@ import com.ashanhimantha.product_service.entity.Category;
 import com.ashanhimantha.product_service.mapper.CategoryMapper;
 import com.ashanhimantha.product_service.service.CategoryService;
 import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.storage.UploadedImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,25 +37,29 @@ public class CategoryController extends AbstractController {
     private final CategoryService categoryService;
     private final CategoryMapper categoryMapper;
     private final ImageUploadService imageUploadService;
+    private final CompressedPayloadCache compressedPayloadCache;
 
     @Operation(
             summary = "Get all categories",
             description = "Retrieve all categories with optional summary format. Use summary=true for basic info only."
     )
     @GetMapping
-    @SuppressWarnings("unchecked")
-    public ResponseEntity<ApiResponse<?>> getAllCategories(
+    public ResponseEntity<byte[]> getAllCategories(
             @Parameter(description = "Return summary format (id, name, image only)", example = "false")
-            @RequestParam(value = "summary", required = false, defaultValue = "false") boolean summary) {
-        List<Category> categories = categoryService.getAllCategoriesAsList();
-
-        if (summary) {
-            List<CategorySummaryResponse> response = categoryMapper.toSummaryResponseList(categories);
-            return (ResponseEntity<ApiResponse<?>>) (ResponseEntity<?>) success("Categories summary retrieved successfully", response);
-        } else {
+            @RequestParam(value = "summary", required = false, defaultValue = "false") boolean summary,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Serialized and gzip-compressed once per category change instead of once per request
+        CompressedPayload payload = compressedPayloadCache.get(CompressedPayloadCache.CATEGORY_PREFIX + summary, () -> {
+            List<Category> categories = categoryService.getAllCategoriesAsList();
+            if (summary) {
+                List<CategorySummaryResponse> response = categoryMapper.toSummaryResponseList(categories);
+                return ApiResponse.success("Categories summary retrieved successfully", response);
+            }
             List<CategoryResponse> response = categoryMapper.toResponseList(categories);
-            return (ResponseEntity<ApiResponse<?>>) (ResponseEntity<?>) success("Categories retrieved successfully", response);
-        }
+            return ApiResponse.success("Categories retrieved successfully", response);
+        });
+        return compressed(payload, acceptEncoding, ifNoneMatch);
     }
 
     @Operation(
@@ -91,8 +99,7 @@ public class CategoryController extends AbstractController {
         Category createdCategory = categoryService.createCategory(categoryRequest);
 
         if (image != null && !image.isEmpty()) {
-            String imageUrl = imageUploadService.uploadCategoryImage(image, createdCategory.getId());
-            categoryService.updateCategoryImage(createdCategory.getId(), imageUrl);
+            categoryService.replaceCategoryImage(createdCategory.getId(), image);
             createdCategory = categoryService.getCategoryById(createdCategory.getId());
         }
 
@@ -132,12 +139,7 @@ public class CategoryController extends AbstractController {
         Category updatedCategory = categoryService.updateCategory(categoryId, categoryRequest);
 
         if (image != null && !image.isEmpty()) {
-            Category existingCategory = categoryService.getCategoryById(categoryId);
-            if (existingCategory.getImageUrl() != null && !existingCategory.getImageUrl().isEmpty()) {
-                imageUploadService.deleteCategoryImage(existingCategory.getImageUrl());
-            }
-            String imageUrl = imageUploadService.uploadCategoryImage(image, categoryId);
-            categoryService.updateCategoryImage(categoryId, imageUrl);
+            categoryService.replaceCategoryImage(categoryId, image);
             updatedCategory = categoryService.getCategoryById(categoryId);
         }
 
@@ -159,16 +161,16 @@ public class CategoryController extends AbstractController {
         // Check if category has relationships with products
         boolean hasProducts = categoryService.categoryHasProducts(categoryId);
 
+        categoryService.deleteCategory(categoryId);
+
         if (!hasProducts) {
-            // Permanent delete: Delete the image from S3 first
+            // Permanent delete: queue the image for removal from S3
             if (category.getImageUrl() != null && !category.getImageUrl().isEmpty()) {
                 imageUploadService.deleteCategoryImage(category.getImageUrl());
             }
         }
         // If hasProducts, it's a soft delete - keep the image for historical data
 
-        categoryService.deleteCategory(categoryId);
-
         String message = hasProducts
             ? "Category deactivated successfully (soft delete)"
             : "Category deleted permanently";
@@ -188,15 +190,10 @@ public class CategoryController extends AbstractController {
             @Parameter(description = "Category image file", required = true)
             @RequestParam("image") MultipartFile image) {
 
-        Category category = categoryService.getCategoryById(categoryId);
-        if (category.getImageUrl() != null && !category.getImageUrl().isEmpty()) {
-            imageUploadService.deleteCategoryImage(category.getImageUrl());
-        }
-        String imageUrl = imageUploadService.uploadCategoryImage(image, categoryId);
-        categoryService.updateCategoryImage(categoryId, imageUrl);
+        UploadedImage uploadedImage = categoryService.replaceCategoryImage(categoryId, image);
 
         Map<String, String> response = new HashMap<>();
-        response.put("imageUrl", imageUrl);
+        response.put("imageUrl", uploadedImage.getUrl());
         return success("Category image uploaded successfully", response);
     }
 
@@ -211,8 +208,8 @@ public class CategoryController extends AbstractController {
             @Parameter(description = "Category ID", required = true) @PathVariable Long categoryId) {
         Category category = categoryService.getCategoryById(categoryId);
         if (category.getImageUrl() != null && !category.getImageUrl().isEmpty()) {
-            imageUploadService.deleteCategoryImage(category.getImageUrl());
             categoryService.updateCategoryImage(categoryId, null);
+            imageUploadService.deleteCategoryImage(category.getImageUrl());
         }
         return success("Category image deleted successfully", null);
     }
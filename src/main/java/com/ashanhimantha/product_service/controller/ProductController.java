@@ -1,13 +1,26 @@
 package com.ashanhimantha.product_service.controller;
 
+import com.ashanhimantha.product_service.cache.CompressedPayload;
+import com.ashanhimantha.product_service.cache.CompressedPayloadCache;
+import com.ashanhimantha.product_service.dto.request.ConfirmImagesRequest;
+import com.ashanhimantha.product_service.dto.request.PresignImagesRequest;
 import com.ashanhimantha.product_service.dto.request.ProductPatchRequest;
 import com.ashanhimantha.product_service.dto.request.ProductRequest;
 import com.ashanhimantha.product_service.dto.request.ProductUpdateRequest;
 import com.ashanhimantha.product_service.dto.response.AdminProductResponse;
+import com.ashanhimantha.product_service.dto.response.AdminProductSummaryResponse;
 import com.ashanhimantha.product_service.dto.response.ApiResponse;
+import com.ashanhimantha.product_service.dto.response.ChangeFeedResponse;
+import com.ashanhimantha.product_service.dto.response.InventoryAnalyticsResponse;
 import com.ashanhimantha.product_service.dto.response.PaginatedResponse;
+import com.ashanhimantha.product_service.dto.response.PresignedUploadResponse;
+import com.ashanhimantha.product_service.dto.response.ProductCreationJobResponse;
 import com.ashanhimantha.product_service.dto.response.ProductResponse;
 import com.ashanhimantha.product_service.dto.response.PublicProductResponse;
+import com.ashanhimantha.product_service.dto.response.PublicProductSummaryResponse;
+import com.ashanhimantha.product_service.service.IdempotencyService;
+import com.ashanhimantha.product_service.service.InventoryAnalyticsService;
+import com.ashanhimantha.product_service.service.ProductCreationJobService;
 import com.ashanhimantha.product_service.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,15 +33,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -37,30 +53,87 @@ import java.util.List;
 public class ProductController extends AbstractController {
 
     private final ProductService productService;
+    private final CompressedPayloadCache compressedPayloadCache;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final IdempotencyService idempotencyService;
+    private final ProductCreationJobService productCreationJobService;
     private static final int MAX_IMAGES = 6;
+    private static final int MAX_CHANGES_PER_CALL = 1000;
+    private static final String NDJSON_VALUE = "application/x-ndjson";
 
 
     @Operation(
             summary = "Get all active products",
-            description = "Retrieve all active products for public view with pagination support"
+            description = "Retrieve product summaries (price range, availability) of all active products with pagination support. Sort by price with sort=minPrice or sort=maxPrice. Fetch a product by ID for its variants."
     )
     @GetMapping
-    public ResponseEntity<ApiResponse<PaginatedResponse<PublicProductResponse>>> getAllActiveProducts(
+    public ResponseEntity<ApiResponse<PaginatedResponse<PublicProductSummaryResponse>>> getAllActiveProducts(
             @Parameter(hidden = true) Pageable pageable) {
-        Page<PublicProductResponse> productPage = productService.getAllActiveProductsForPublic(pageable);
-        PaginatedResponse<PublicProductResponse> responseData = new PaginatedResponse<>(productPage);
+        Page<PublicProductSummaryResponse> productPage = productService.getAllActiveProductsForPublic(pageable);
+        PaginatedResponse<PublicProductSummaryResponse> responseData = new PaginatedResponse<>(productPage);
         return success("Active products retrieved successfully", responseData);
     }
 
+    @Operation(
+            summary = "Get product changes since a token",
+            description = "Incremental catalog sync. Returns upserts and tombstones (deleted or deactivated products) in commit order; changes of transactions that are still running are held back until they commit. Omit 'since' for the full history and pass the returned nextToken on the next call. A 410 response means the token has expired and a full resync is required."
+    )
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangeFeedResponse>> getProductChanges(
+            @Parameter(description = "Change token returned by the previous call", example = "48211:1042")
+            @RequestParam(value = "since", required = false) String since,
+            @Parameter(description = "Maximum number of change events to read (1-1000)", example = "500")
+            @RequestParam(value = "limit", required = false, defaultValue = "500") int limit) {
+        if (limit < 1 || limit > MAX_CHANGES_PER_CALL) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CHANGES_PER_CALL);
+        }
+        ChangeFeedResponse changes = productService.getProductChanges(since, limit);
+        return success("Product changes retrieved successfully", changes);
+    }
+
+    @Operation(
+            summary = "Export all active products",
+            description = "Stream the full active catalog as newline-delimited JSON, one product per line, without pagination. The response is gzip-compressed when the client sends Accept-Encoding: gzip."
+    )
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportActiveProducts(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                productService.exportActiveProductsForPublic(gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                productService.exportActiveProductsForPublic(outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @Operation(
             summary = "Get active product by ID",
             description = "Retrieve a specific active product by its ID for public view"
     )
     @GetMapping("/{productId}")
-    public ResponseEntity<ApiResponse<PublicProductResponse>> getActiveProductById(
-            @Parameter(description = "Product ID", required = true) @PathVariable Long productId) {
-        PublicProductResponse product = productService.getActiveProductByIdForPublic(productId);
-        return success("Active product retrieved successfully", product);
+    public ResponseEntity<byte[]> getActiveProductById(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Frequently requested products stay in the LRU cache already compressed
+        CompressedPayload payload = compressedPayloadCache.get(CompressedPayloadCache.PRODUCT_PREFIX + productId, () -> {
+            PublicProductResponse product = productService.getActiveProductByIdForPublic(productId);
+            return ApiResponse.success("Active product retrieved successfully", product);
+        });
+        return compressed(payload, acceptEncoding, ifNoneMatch);
     }
 
 
@@ -68,18 +141,35 @@ public class ProductController extends AbstractController {
 
     @Operation(
             summary = "Get all products (Admin)",
-            description = "Retrieve all products including inactive ones for admin view with pagination support. Requires SuperAdmin role.",
+            description = "Retrieve summaries (total stock, price range, active variant count) of all products including inactive ones with pagination support. Sortable by totalStock, minPrice and maxPrice. Requires SuperAdmin role.",
             security = @SecurityRequirement(name = "bearer-jwt")
     )
     @GetMapping("/admin")
     @PreAuthorize("hasRole('SuperAdmins')")
-    public ResponseEntity<ApiResponse<PaginatedResponse<AdminProductResponse>>> getAllProductsForAdmin(
+    public ResponseEntity<ApiResponse<PaginatedResponse<AdminProductSummaryResponse>>> getAllProductsForAdmin(
             @Parameter(hidden = true) Pageable pageable) {
-        Page<AdminProductResponse> productPage = productService.getAllProductsForAdmin(pageable);
-        PaginatedResponse<AdminProductResponse> responseData = new PaginatedResponse<>(productPage);
+        Page<AdminProductSummaryResponse> productPage = productService.getAllProductsForAdmin(pageable);
+        PaginatedResponse<AdminProductSummaryResponse> responseData = new PaginatedResponse<>(productPage);
         return success("All products retrieved successfully for admin", responseData);
     }
 
+    @Operation(
+            summary = "Get inventory analytics (Admin)",
+            description = "Stock value at cost and at selling price, average unit margin and low-stock variant counts per category, aggregated in a single database query. Results are cached for a short time (see generatedAt). Requires SuperAdmin role.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/admin/analytics/inventory")
+    @PreAuthorize("hasRole('SuperAdmins')")
+    public ResponseEntity<ApiResponse<InventoryAnalyticsResponse>> getInventoryAnalytics(
+            @Parameter(description = "Quantity at or below which an active variant counts as low stock", example = "5")
+            @RequestParam(value = "lowStockThreshold", required = false, defaultValue = "5") int lowStockThreshold) {
+        if (lowStockThreshold < 0) {
+            throw new IllegalArgumentException("Low stock threshold must not be negative");
+        }
+        InventoryAnalyticsResponse analytics = inventoryAnalyticsService.getInventoryAnalytics(lowStockThreshold);
+        return success("Inventory analytics retrieved successfully", analytics);
+    }
+
     @Operation(
             summary = "Get product by ID (Admin)",
             description = "Retrieve a specific product by its ID with full admin details. Requires SuperAdmin role.",
@@ -101,6 +191,35 @@ public class ProductController extends AbstractController {
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('SuperAdmins')")
     public ResponseEntity<ApiResponse<AdminProductResponse>> createProduct(
+            @Valid @ModelAttribute ProductRequest productRequest,
+            @RequestPart(value = "files", required = false)
+            @Parameter(description = "Product images", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE,
+                    array = @ArraySchema(schema = @Schema(type = "string", format = "binary"))))
+                    MultipartFile[] files,
+            @Parameter(description = "Optional key making retries of this request safe; a repeated key replays the original response")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        List<MultipartFile> fileList = files == null ? List.of() : Arrays.asList(files);
+        if (fileList.size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("Maximum " + MAX_IMAGES + " images are allowed per product");
+        }
+
+        String fingerprint = idempotencyKey == null ? null
+                : idempotencyService.fingerprint("POST /api/v1/products", productRequest, fileList);
+        return idempotencyService.execute(idempotencyKey, fingerprint, AdminProductResponse.class, () -> {
+            AdminProductResponse createdProduct = productService.createProduct(productRequest, fileList);
+            return created("Product created successfully", createdProduct);
+        });
+    }
+
+    @Operation(
+            summary = "Create a new product asynchronously",
+            description = "Accepts the same input as product creation, stores it and returns 202 with a job immediately. The product is created in the background; poll the job until it is SUCCEEDED (productId is set) or FAILED (error says why). Requires SuperAdmin role.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @PostMapping(value = "/admin/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('SuperAdmins')")
+    public ResponseEntity<ApiResponse<ProductCreationJobResponse>> submitProductCreationJob(
             @Valid @ModelAttribute ProductRequest productRequest,
             @RequestPart(value = "files", required = false)
             @Parameter(description = "Product images", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE,
@@ -112,8 +231,21 @@ public class ProductController extends AbstractController {
             throw new IllegalArgumentException("Maximum " + MAX_IMAGES + " images are allowed per product");
         }
 
-        AdminProductResponse createdProduct = productService.createProduct(productRequest, fileList);
-        return created("Product created successfully", createdProduct);
+        ProductCreationJobResponse job = productCreationJobService.submit(productRequest, fileList);
+        return accepted("Product creation job accepted", job);
+    }
+
+    @Operation(
+            summary = "Get product creation job status",
+            description = "Retrieve the state of an asynchronous product creation job. Requires SuperAdmin role.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/admin/jobs/{jobId}")
+    @PreAuthorize("hasRole('SuperAdmins')")
+    public ResponseEntity<ApiResponse<ProductCreationJobResponse>> getProductCreationJob(
+            @Parameter(description = "Job ID", required = true) @PathVariable Long jobId) {
+        ProductCreationJobResponse job = productCreationJobService.getJob(jobId);
+        return success("Product creation job retrieved successfully", job);
     }
 
     @Operation(
@@ -202,4 +334,35 @@ public class ProductController extends AbstractController {
         AdminProductResponse response = productService.uploadProductImages(productId, fileList);
         return success("Product images uploaded successfully", response);
     }
+
+    @Operation(
+            summary = "Presign product image uploads",
+            description = "Step 1 of the direct upload flow: returns one presigned PUT URL per image, scoped to the product's folder. Upload each file to its URL with the returned headers, then call the confirm endpoint. Only JPEG, PNG and WebP up to 5MB are accepted, and the product may hold at most 6 images. Requires SuperAdmin role.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @PostMapping(value = "/{productId}/images/presign", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('SuperAdmins')")
+    public ResponseEntity<ApiResponse<List<PresignedUploadResponse>>> presignProductImageUploads(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Valid @RequestBody PresignImagesRequest request) {
+        if (request.getImages().size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("Maximum " + MAX_IMAGES + " images are allowed per product");
+        }
+        List<PresignedUploadResponse> uploads = productService.presignProductImageUploads(productId, request);
+        return success("Upload URLs issued successfully", uploads);
+    }
+
+    @Operation(
+            summary = "Confirm product image uploads",
+            description = "Step 2 of the direct upload flow: verifies the uploaded objects (existence, content type, size) and attaches them to the product. Maximum 6 images total allowed per product. Requires SuperAdmin role.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @PostMapping(value = "/{productId}/images/confirm", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('SuperAdmins')")
+    public ResponseEntity<ApiResponse<AdminProductResponse>> confirmProductImageUploads(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Valid @RequestBody ConfirmImagesRequest request) {
+        AdminProductResponse response = productService.confirmProductImageUploads(productId, request.getObjectKeys());
+        return success("Product images attached successfully", response);
+    }
 }
@@ -1,9 +1,13 @@
 package com.ashanhimantha.product_service.controller;
 
+import com.ashanhimantha.product_service.dto.request.BulkVariantRequest;
 import com.ashanhimantha.product_service.dto.request.VariantRequest;
 import com.ashanhimantha.product_service.dto.request.VariantUpdateRequest;
 import com.ashanhimantha.product_service.dto.response.ApiResponse;
+import com.ashanhimantha.product_service.dto.response.BulkVariantResponse;
+import com.ashanhimantha.product_service.dto.response.PaginatedResponse;
 import com.ashanhimantha.product_service.dto.response.ProductVariantResponse;
+import com.ashanhimantha.product_service.service.IdempotencyService;
 import com.ashanhimantha.product_service.service.ProductVariantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +15,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +30,7 @@ import java.util.List;
 public class ProductVariantController extends AbstractController {
 
     private final ProductVariantService productVariantService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a new variant for an existing product
@@ -44,6 +51,43 @@ public class ProductVariantController extends AbstractController {
         return created("Product variant created successfully", variant);
     }
 
+    /**
+     * Create every size x color combination for an existing product
+     * Example: POST /api/v1/product-variants/product/123/bulk
+     * Body: { "colors": ["Red", "Blue"], "sizes": ["S", "M", "L"], "unitCost": 15.00, "sellingPrice": 29.99, "quantity": 50 }
+     */
+    @Operation(
+            summary = "Create product variants in bulk",
+            description = "Create all size x color combinations for an existing product in one call. Sizes must be options of the product's category type. Combinations that already exist or use an unknown size are skipped and reported in errors; the rest are created. Requires SuperAdmin role.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @PostMapping("/product/{productId}/bulk")
+    @PreAuthorize("hasRole('SuperAdmins')")
+    public ResponseEntity<ApiResponse<BulkVariantResponse>> createVariants(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Valid @RequestBody BulkVariantRequest request) {
+        BulkVariantResponse result = productVariantService.createVariants(productId, request);
+        String message = result.getCreated().size() + " of " + result.getRequested() + " variants created";
+        return result.getCreated().isEmpty() ? success(message, result) : created(message, result);
+    }
+
+    /**
+     * Low-stock watchlist: active variants at or below their reorder threshold
+     * Example: GET /api/v1/product-variants/low-stock?page=0&size=50
+     */
+    @Operation(
+            summary = "Get low-stock variants",
+            description = "Retrieve active variants whose quantity is at or below their reorder threshold, with pagination support. Requires SuperAdmin role.",
+            security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @GetMapping("/low-stock")
+    @PreAuthorize("hasRole('SuperAdmins')")
+    public ResponseEntity<ApiResponse<PaginatedResponse<ProductVariantResponse>>> getLowStockVariants(
+            @Parameter(hidden = true) Pageable pageable) {
+        Page<ProductVariantResponse> variantPage = productVariantService.getLowStockVariants(pageable);
+        return success("Low-stock variants retrieved successfully", new PaginatedResponse<>(variantPage));
+    }
+
     /**
      * Get a specific product variant by ID
      */
@@ -95,8 +139,14 @@ public class ProductVariantController extends AbstractController {
     @PreAuthorize("hasRole('SuperAdmins')")
     public ResponseEntity<ApiResponse<ProductVariantResponse>> updateVariant(
             @Parameter(description = "Variant ID", required = true) @PathVariable Long variantId,
-            @Valid @RequestBody VariantUpdateRequest request) {
-        ProductVariantResponse updated = productVariantService.updateVariant(variantId, request);
-        return success("Variant updated successfully", updated);
+            @Valid @RequestBody VariantUpdateRequest request,
+            @Parameter(description = "Optional key making retries of this request safe; a repeated key replays the original response")
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        String fingerprint = idempotencyKey == null ? null
+                : idempotencyService.fingerprint("PATCH /api/v1/product-variants/" + variantId, request, null);
+        return idempotencyService.execute(idempotencyKey, fingerprint, ProductVariantResponse.class, () -> {
+            ProductVariantResponse updated = productVariantService.updateVariant(variantId, request);
+            return success("Variant updated successfully", updated);
+        });
     }
 }
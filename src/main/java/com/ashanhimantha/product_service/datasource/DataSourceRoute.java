@@ -0,0 +1,9 @@
+package com.ashanhimantha.product_service.datasource;
+
+/**
+ * Lookup keys of the read/write routing DataSource
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,26 @@
+package com.ashanhimantha.product_service.datasource;
+
+/**
+ * Per-thread switch that pins read-only transactions to the primary.
+ * Set for the duration of a request that writes, or that presents a fresh read-your-writes token,
+ * so a client never reads data older than its own last write from a lagging replica.
+ */
+public final class PrimaryReadContext {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private PrimaryReadContext() {
+    }
+
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    public static void clear() {
+        FORCE_PRIMARY.remove();
+    }
+}
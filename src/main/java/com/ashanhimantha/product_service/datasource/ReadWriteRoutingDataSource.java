@@ -0,0 +1,20 @@
+package com.ashanhimantha.product_service.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for @Transactional(readOnly = true) work to the replica and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager fetches its connection before
+ * the read-only flag is bound to the thread, so the physical connection has to be resolved at first use.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryReadContext.isPrimaryForced()) {
+            return DataSourceRoute.REPLICA;
+        }
+        return DataSourceRoute.PRIMARY;
+    }
+}
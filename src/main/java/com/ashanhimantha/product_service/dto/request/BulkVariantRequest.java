@@ -0,0 +1,51 @@
+package com.ashanhimantha.product_service.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for creating every size x color combination of a product in one call.
+ * Pricing and stock apply to each created variant; adjust single variants afterwards with PATCH.
+ */
+@Data
+@Schema(description = "Request body for creating a size x color matrix of product variants")
+public class BulkVariantRequest {
+
+    @Schema(description = "Colors (optional). Leave empty to create one color-less variant per size", example = "[\"Red\", \"Blue\"]")
+    private List<@NotBlank(message = "Color cannot be blank")
+                 @Size(min = 2, max = 50, message = "Color must be between 2 and 50 characters") String> colors;
+
+    @NotEmpty(message = "At least one size is required")
+    @Schema(description = "Sizes; each must be one of the size options of the product's category type",
+            example = "[\"S\", \"M\", \"L\"]", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<@NotBlank(message = "Size cannot be blank")
+                 @Size(max = 10, message = "Size must be at most 10 characters") String> sizes;
+
+    @NotNull(message = "Unit cost is required")
+    @PositiveOrZero(message = "Unit cost must be zero or positive")
+    @Digits(integer = 8, fraction = 2)
+    @Schema(description = "Unit cost price of each variant", example = "25.50", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Double unitCost;
+
+    @NotNull(message = "Selling price is required")
+    @Positive(message = "Selling price must be positive")
+    @Digits(integer = 8, fraction = 2)
+    @Schema(description = "Selling price of each variant", example = "35.00", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Double sellingPrice;
+
+    @NotNull(message = "Initial quantity is required")
+    @PositiveOrZero(message = "Quantity must be zero or positive")
+    @Schema(description = "Initial stock quantity of each variant", example = "100", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer quantity;
+
+    @PositiveOrZero(message = "Reorder threshold must be zero or positive")
+    @Schema(description = "Quantity at or below which a variant is reported as low stock (defaults to 0)", example = "10")
+    private Integer reorderThreshold;
+
+    public boolean hasColors() {
+        return colors != null && !colors.isEmpty();
+    }
+}
@@ -0,0 +1,18 @@
+package com.ashanhimantha.product_service.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request body for attaching directly uploaded images")
+public class ConfirmImagesRequest {
+
+    @NotEmpty(message = "At least one object key is required")
+    @Schema(description = "Object keys returned by the presign call, after the uploads completed",
+            example = "[\"products/42/product_3f2b8c1e-0d7a-4e55-9a61-2c0f6f1b7d11.jpg\"]",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<String> objectKeys;
+}
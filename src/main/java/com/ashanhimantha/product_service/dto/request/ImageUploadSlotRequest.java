@@ -0,0 +1,24 @@
+package com.ashanhimantha.product_service.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * One image the client intends to upload directly to storage
+ */
+@Data
+@Schema(description = "Content type and exact size of an image to upload")
+public class ImageUploadSlotRequest {
+
+    @NotBlank(message = "Content type is required")
+    @Schema(description = "Image content type (image/jpeg, image/png or image/webp)", example = "image/jpeg", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String contentType;
+
+    @NotNull(message = "Content length is required")
+    @Positive(message = "Content length must be positive")
+    @Schema(description = "Exact file size in bytes (maximum 5MB)", example = "524288", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long contentLength;
+}
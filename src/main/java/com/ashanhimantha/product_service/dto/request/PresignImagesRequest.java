@@ -0,0 +1,18 @@
+package com.ashanhimantha.product_service.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request body for issuing presigned image upload URLs")
+public class PresignImagesRequest {
+
+    @NotEmpty(message = "At least one image is required")
+    @Valid
+    @Schema(description = "Images to upload", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<ImageUploadSlotRequest> images;
+}
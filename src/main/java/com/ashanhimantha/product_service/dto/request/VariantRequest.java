@@ -37,6 +37,10 @@ public class VariantRequest {
     @Schema(description = "Initial stock quantity", example = "100", requiredMode = Schema.RequiredMode.REQUIRED)
     private Integer quantity;
 
+    @PositiveOrZero(message = "Reorder threshold must be zero or positive")
+    @Schema(description = "Quantity at or below which the variant is reported as low stock (defaults to 0)", example = "10")
+    private Integer reorderThreshold;
+
     @Size(max = 50, message = "SKU cannot exceed 50 characters")
     @Schema(description = "Stock keeping unit (optional unique identifier)", example = "TOM-RED-1KG")
     private String sku; // Optional unique identifier
@@ -21,5 +21,8 @@ public class VariantUpdateRequest {
     private Double sellingPrice;
 
     private Boolean isActive;
+
+    @Min(value = 0, message = "Reorder threshold must be greater than or equal to 0")
+    private Integer reorderThreshold;
 }
 
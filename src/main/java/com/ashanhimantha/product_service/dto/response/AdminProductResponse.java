@@ -42,6 +42,9 @@ public class AdminProductResponse {
     @Schema(description = "Product image URLs", example = "[\"https://s3.amazonaws.com/bucket/image1.jpg\", \"https://s3.amazonaws.com/bucket/image2.jpg\"]")
     private List<String> imageUrls;
 
+    @Schema(description = "Product images with their pixel dimensions, in the same order as imageUrls")
+    private List<ImageResponse> images;
+
     @Schema(description = "Product creation timestamp", example = "2024-01-15T10:30:00Z")
     private Instant createdAt;
 
@@ -0,0 +1,57 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import com.ashanhimantha.product_service.entity.enums.ProductType;
+import com.ashanhimantha.product_service.entity.enums.Status;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Admin list view of a product.
+ * Built from the precomputed variant aggregates on products, so list pages never load variants.
+ */
+@Data
+@Schema(description = "Product summary for administrator list views")
+public class AdminProductSummaryResponse {
+
+    @Schema(description = "Product ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Product name", example = "Organic Tomatoes")
+    private String name;
+
+    @Schema(description = "Product type - STOCK (has inventory) or NON_STOCK (made-to-order)", example = "STOCK")
+    private ProductType productType;
+
+    @Schema(description = "Product status - ACTIVE or INACTIVE", example = "ACTIVE")
+    private Status status;
+
+    @Schema(description = "Category information")
+    private CategoryResponse category;
+
+    @Schema(description = "Total stock across all variants", example = "150")
+    private Integer totalStock;
+
+    @Schema(description = "Lowest selling price among active variants", example = "35.00")
+    private Double minPrice;
+
+    @Schema(description = "Highest selling price among active variants", example = "45.00")
+    private Double maxPrice;
+
+    @Schema(description = "Number of active variants", example = "6")
+    private Integer activeVariantCount;
+
+    @Schema(description = "Product image URLs", example = "[\"https://s3.amazonaws.com/bucket/image1.jpg\"]")
+    private List<String> imageUrls;
+
+    @Schema(description = "Product images with their pixel dimensions, in the same order as imageUrls")
+    private List<ImageResponse> images;
+
+    @Schema(description = "Product creation timestamp", example = "2024-01-15T10:30:00Z")
+    private Instant createdAt;
+
+    @Schema(description = "Product last update timestamp", example = "2024-11-08T14:20:00Z")
+    private Instant updatedAt;
+}
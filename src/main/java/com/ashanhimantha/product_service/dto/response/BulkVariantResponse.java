@@ -0,0 +1,20 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Outcome of a bulk variant creation: the created variants and the rejected combinations")
+public class BulkVariantResponse {
+
+    @Schema(description = "Number of size x color combinations requested", example = "6")
+    private int requested;
+
+    @Schema(description = "Variants that were created")
+    private List<ProductVariantResponse> created;
+
+    @Schema(description = "Combinations that were skipped, one entry per combination")
+    private List<BulkVariantRowError> errors;
+}
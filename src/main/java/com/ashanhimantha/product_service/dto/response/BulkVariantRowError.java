@@ -0,0 +1,22 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A size x color combination that was not created, and why")
+public class BulkVariantRowError {
+
+    @Schema(description = "Variant color (null for color-less variants)", example = "Red")
+    private String color;
+
+    @Schema(description = "Variant size", example = "XXL")
+    private String size;
+
+    @Schema(description = "Why the variant was not created", example = "A variant with this color and size already exists")
+    private String message;
+}
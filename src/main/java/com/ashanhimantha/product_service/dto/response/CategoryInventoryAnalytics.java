@@ -0,0 +1,44 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inventory aggregates of one category, produced directly by a grouped JPQL query
+ * (see ProductVariantRepository.aggregateInventoryByCategory)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Inventory aggregates for one category")
+public class CategoryInventoryAnalytics {
+
+    @Schema(description = "Category ID", example = "3")
+    private Long categoryId;
+
+    @Schema(description = "Category name", example = "T-Shirts")
+    private String categoryName;
+
+    @Schema(description = "Number of products with at least one variant", example = "42")
+    private Long productCount;
+
+    @Schema(description = "Number of variants", example = "310")
+    private Long variantCount;
+
+    @Schema(description = "Units in stock", example = "5120")
+    private Long totalUnits;
+
+    @Schema(description = "Stock value at cost (sum of unitCost x quantity)", example = "130560.00")
+    private Double stockValueAtCost;
+
+    @Schema(description = "Stock value at selling price (sum of sellingPrice x quantity)", example = "179200.00")
+    private Double stockValueAtPrice;
+
+    @Schema(description = "Average unit margin (sellingPrice - unitCost) across variants", example = "9.50")
+    private Double averageUnitMargin;
+
+    @Schema(description = "Active variants at or below the low-stock threshold", example = "12")
+    private Long lowStockVariantCount;
+}
@@ -24,6 +24,12 @@ public class CategoryResponse {
     @Schema(description = "Category image URL", example = "https://s3.amazonaws.com/bucket/category.jpg")
     private String imageUrl;
 
+    @Schema(description = "Category image width in pixels", example = "1200")
+    private Integer imageWidth;
+
+    @Schema(description = "Category image height in pixels", example = "800")
+    private Integer imageHeight;
+
     @Schema(description = "Category type information")
     private CategoryTypeResponse categoryType;
 
@@ -0,0 +1,24 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import com.ashanhimantha.product_service.entity.enums.AggregateType;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Wire format of a catalog change event delivered to outbox sinks.
+ * Consumers should de-duplicate on id since delivery is at-least-once.
+ */
+@Data
+public class ChangeEventMessage {
+    private Long id;
+    private AggregateType aggregateType;
+    private Long aggregateId;
+    private ChangeEventType eventType;
+    private Instant occurredAt;
+
+    @JsonRawValue
+    private String payload;
+}
@@ -0,0 +1,20 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "A page of the product change feed")
+public class ChangeFeedResponse {
+
+    @Schema(description = "Changes in commit order, one entry per product")
+    private List<ProductChangeResponse> changes;
+
+    @Schema(description = "Token to pass as 'since' on the next call", example = "48211:1042")
+    private String nextToken;
+
+    @Schema(description = "Whether more changes are immediately available", example = "false")
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Stored image with its pixel dimensions")
+public class ImageResponse {
+
+    @Schema(description = "Image URL", example = "https://s3.amazonaws.com/bucket/blobs/3a7bd3e2.jpg")
+    private String url;
+
+    @Schema(description = "Width in pixels (null for images uploaded before dimensions were recorded)", example = "1200")
+    private Integer width;
+
+    @Schema(description = "Height in pixels (null for images uploaded before dimensions were recorded)", example = "800")
+    private Integer height;
+}
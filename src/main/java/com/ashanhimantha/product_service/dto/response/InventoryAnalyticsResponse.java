@@ -0,0 +1,33 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Schema(description = "Inventory analytics per category for the admin dashboard")
+public class InventoryAnalyticsResponse {
+
+    @Schema(description = "Quantity at or below which an active variant counts as low stock", example = "5")
+    private int lowStockThreshold;
+
+    @Schema(description = "Per-category aggregates, ordered by category name")
+    private List<CategoryInventoryAnalytics> categories;
+
+    @Schema(description = "Units in stock across all categories", example = "51200")
+    private long totalUnits;
+
+    @Schema(description = "Stock value at cost across all categories", example = "1305600.00")
+    private double totalStockValueAtCost;
+
+    @Schema(description = "Stock value at selling price across all categories", example = "1792000.00")
+    private double totalStockValueAtPrice;
+
+    @Schema(description = "Low-stock variants across all categories", example = "87")
+    private long totalLowStockVariants;
+
+    @Schema(description = "When these figures were computed (responses are cached briefly)", example = "2024-11-08T14:20:00Z")
+    private Instant generatedAt;
+}
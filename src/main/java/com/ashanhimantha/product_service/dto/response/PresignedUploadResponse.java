@@ -0,0 +1,28 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Schema(description = "A presigned URL for uploading one image directly to storage")
+public class PresignedUploadResponse {
+
+    @Schema(description = "Object key to pass to the confirm endpoint once the upload succeeded",
+            example = "products/42/product_3f2b8c1e-0d7a-4e55-9a61-2c0f6f1b7d11.jpg")
+    private String objectKey;
+
+    @Schema(description = "Presigned URL to PUT the image bytes to")
+    private String uploadUrl;
+
+    @Schema(description = "HTTP method to use", example = "PUT")
+    private String method;
+
+    @Schema(description = "Headers that must be sent with the upload exactly as given (they are part of the signature)")
+    private Map<String, String> headers;
+
+    @Schema(description = "When the upload URL expires", example = "2024-11-08T14:30:00Z")
+    private Instant expiresAt;
+}
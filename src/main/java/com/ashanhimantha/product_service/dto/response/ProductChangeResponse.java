@@ -0,0 +1,31 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * A single entry of the product change feed.
+ * UPSERT carries the current public representation; TOMBSTONE means the product
+ * was deleted or is no longer active and should be removed by the consumer.
+ */
+@Data
+@Schema(description = "Product change feed entry")
+public class ProductChangeResponse {
+
+    public enum Operation {
+        UPSERT,
+        TOMBSTONE
+    }
+
+    @Schema(description = "Change sequence number of the latest change to this product", example = "1042")
+    private Long sequence;
+
+    @Schema(description = "Product ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "UPSERT or TOMBSTONE", example = "UPSERT")
+    private Operation operation;
+
+    @Schema(description = "Current product data (null for tombstones)")
+    private PublicProductResponse product;
+}
@@ -0,0 +1,36 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import com.ashanhimantha.product_service.entity.enums.JobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Schema(description = "State of an asynchronous product creation job")
+public class ProductCreationJobResponse {
+
+    @Schema(description = "Job ID", example = "101")
+    private Long jobId;
+
+    @Schema(description = "QUEUED, RUNNING, SUCCEEDED or FAILED", example = "RUNNING")
+    private JobStatus status;
+
+    @Schema(description = "ID of the created product, once the job has succeeded", example = "42")
+    private Long productId;
+
+    @Schema(description = "Why the job failed, or the last transient error of a job that will be retried")
+    private String error;
+
+    @Schema(description = "Number of times a worker has started the job", example = "1")
+    private Integer attempts;
+
+    @Schema(description = "When the job was submitted", example = "2024-11-08T14:30:00Z")
+    private Instant createdAt;
+
+    @Schema(description = "When the latest attempt started", example = "2024-11-08T14:30:01Z")
+    private Instant startedAt;
+
+    @Schema(description = "When the job succeeded or failed", example = "2024-11-08T14:30:04Z")
+    private Instant completedAt;
+}
@@ -45,4 +45,7 @@ public class ProductResponse {
     @Schema(description = "Product image URLs", example = "[\"https://s3.amazonaws.com/bucket/image1.jpg\"]")
     private java.util.List<String> imageUrls;
 
+    @Schema(description = "Product images with their pixel dimensions, in the same order as imageUrls")
+    private java.util.List<ImageResponse> images;
+
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ public class ProductVariantResponse {
     private Double unitCost;
     private Double sellingPrice;
     private Integer quantity;
+    private Integer reorderThreshold;
     private String sku;
     private Boolean isActive;
     private String variantName;
@@ -34,4 +34,7 @@ public class PublicProductResponse {
 
     @Schema(description = "Product image URLs", example = "[\"https://s3.amazonaws.com/bucket/image1.jpg\", \"https://s3.amazonaws.com/bucket/image2.jpg\"]")
     private List<String> imageUrls;
+
+    @Schema(description = "Product images with their pixel dimensions, in the same order as imageUrls")
+    private List<ImageResponse> images;
 }
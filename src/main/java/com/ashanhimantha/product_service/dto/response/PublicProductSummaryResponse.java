@@ -0,0 +1,45 @@
+package com.ashanhimantha.product_service.dto.response;
+
+import com.ashanhimantha.product_service.entity.enums.ProductType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Public list view of a product (price range and availability instead of the full variant list)
+ */
+@Data
+@Schema(description = "Public product summary for catalog list views")
+public class PublicProductSummaryResponse {
+
+    @Schema(description = "Product ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Product name", example = "Organic Tomatoes")
+    private String name;
+
+    @Schema(description = "Product description", example = "Fresh organic tomatoes from local farms")
+    private String description;
+
+    @Schema(description = "Product type - STOCK (has inventory) or NON_STOCK (made-to-order)", example = "STOCK")
+    private ProductType productType;
+
+    @Schema(description = "Category information")
+    private CategoryResponse category;
+
+    @Schema(description = "Lowest variant price", example = "35.00")
+    private Double minPrice;
+
+    @Schema(description = "Highest variant price", example = "45.00")
+    private Double maxPrice;
+
+    @Schema(description = "Whether any active variant has stock", example = "true")
+    private boolean inStock;
+
+    @Schema(description = "Product image URLs", example = "[\"https://s3.amazonaws.com/bucket/image1.jpg\"]")
+    private List<String> imageUrls;
+
+    @Schema(description = "Product images with their pixel dimensions, in the same order as imageUrls")
+    private List<ImageResponse> images;
+}
@@ -30,6 +30,9 @@ public class VariantResponse {
     @Schema(description = "Available quantity", example = "100")
     private Integer quantity;
 
+    @Schema(description = "Quantity at or below which the variant is reported as low stock", example = "10")
+    private Integer reorderThreshold;
+
     @Schema(description = "Stock keeping unit", example = "TOM-RED-1KG")
     private String sku;
 
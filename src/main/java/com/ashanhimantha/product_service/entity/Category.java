@@ -5,15 +5,19 @@ package com.ashanhimantha.product_service.entity;
 import com.ashanhimantha.product_service.entity.enums.Status;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 
 @Entity
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Data
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -24,6 +28,10 @@ public class Category {
     @Column(length = 500)
     private String imageUrl; // URL to category image (S3, CDN, etc.)
 
+    private Integer imageWidth; // Read from the image header on upload
+
+    private Integer imageHeight;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "category_type_id")
     private CategoryType categoryType; // The sizing/measurement template for this category
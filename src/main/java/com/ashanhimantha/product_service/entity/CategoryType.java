@@ -3,6 +3,8 @@ package com.ashanhimantha.product_service.entity;
 import com.ashanhimantha.product_service.entity.enums.Status;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,11 +18,13 @@ import java.util.List;
  */
 @Entity
 @Table(name = "category_types")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category-types")
 @Data
 public class CategoryType {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_types_seq")
+    @SequenceGenerator(name = "category_types_seq", sequenceName = "category_types_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
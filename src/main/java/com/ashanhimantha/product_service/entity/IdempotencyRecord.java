@@ -0,0 +1,41 @@
+package com.ashanhimantha.product_service.entity;
+
+import com.ashanhimantha.product_service.entity.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * The outcome of a request sent with an Idempotency-Key. Rows are claimed and completed with
+ * native statements in IdempotencyRecordRepository and removed once expiresAt has passed.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+    @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+@Data
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 64)
+    private String recordKey; // SHA-256 hex of client id and Idempotency-Key
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint; // SHA-256 hex of the operation and request payload
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    private Integer responseStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody; // ApiResponse JSON
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
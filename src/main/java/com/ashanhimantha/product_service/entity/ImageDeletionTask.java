@@ -0,0 +1,40 @@
+package com.ashanhimantha.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * An S3 object waiting to be deleted. Rows are written in the same transaction that drops the
+ * reference to the image and are drained in batches by the ImageDeletionWorker.
+ */
+@Entity
+@Table(name = "image_deletion_queue", indexes = {
+    @Index(name = "idx_image_deletion_queue_due", columnList = "next_attempt_at")
+})
+@Data
+public class ImageDeletionTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_deletion_queue_seq")
+    @SequenceGenerator(name = "image_deletion_queue_seq", sequenceName = "image_deletion_queue_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 1024)
+    private String objectKey;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,41 @@
+package com.ashanhimantha.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A content-addressed image object in S3 (key derived from the SHA-256 of its bytes), shared by every
+ * product/category row that uploaded the same image. refCount is maintained with native upserts in
+ * ImageObjectRepository; the object is only deleted from S3 once the count has dropped to zero.
+ */
+@Entity
+@Table(name = "image_objects", indexes = {
+    @Index(name = "idx_image_objects_content_hash", columnList = "content_hash")
+})
+@Data
+public class ImageObject {
+
+    @Id
+    @Column(length = 1024)
+    private String objectKey;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash; // Lower-case hex SHA-256
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,55 @@
+package com.ashanhimantha.product_service.entity;
+
+import com.ashanhimantha.product_service.entity.enums.AggregateType;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A catalog change event written in the same transaction as the mutation that caused it.
+ * Unpublished rows (publishedAt = null) are drained in id order by the OutboxRelay.
+ * The product change feed pages through (txid, id), which unlike the id alone follows commit order
+ * for everything below the oldest running transaction.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_unpublished", columnList = "published_at, id"),
+    @Index(name = "idx_outbox_events_aggregate_txid", columnList = "aggregate_type, txid, id")
+})
+@Data
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    // No pooling: per-instance id blocks would make id order diverge from insert order across instances.
+    // Outbox rows are written one per change, so there is nothing to batch anyway
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private AggregateType aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private ChangeEventType eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // Compact JSON snapshot of the changed fields
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    private Instant publishedAt; // null until delivered to the sink
+
+    // Id of the writing transaction, filled in by the column default (pg_current_xact_id) on insert
+    @Column(insertable = false, updatable = false)
+    private Long txid;
+}
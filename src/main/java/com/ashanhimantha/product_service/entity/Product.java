@@ -5,6 +5,7 @@ import com.ashanhimantha.product_service.entity.enums.ProductType;
 import com.ashanhimantha.product_service.entity.enums.Status;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,7 +19,8 @@ public class Product {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -41,12 +43,30 @@ public class Product {
     private Category category;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50) // Load variants for a whole page of products in one query
     private java.util.List<ProductVariant> variants = new java.util.ArrayList<>(); // For products with color/size variants
 
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
-    @Column(name = "image_url", columnDefinition = "TEXT")
-    private java.util.List<String> imageUrls = new java.util.ArrayList<>();
+    private java.util.List<ProductImage> images = new java.util.ArrayList<>();
+
+    // Variant aggregates: computed in Java on insert, afterwards maintained only by
+    // ProductRepository.refreshVariantAggregates (updatable = false keeps entity updates from overwriting them)
+    @Column(nullable = false, updatable = false)
+    private Integer totalStock = 0;
+
+    @Column(nullable = false, updatable = false)
+    private Integer activeStock = 0; // Stock of active variants, i.e. what can actually be bought
+
+    @Column(updatable = false)
+    private Double minPrice; // Lowest selling price among active variants
+
+    @Column(updatable = false)
+    private Double maxPrice; // Highest selling price among active variants
+
+    @Column(nullable = false, updatable = false)
+    private Integer activeVariantCount = 0;
 
     @CreationTimestamp
     @Column(updatable = false)
@@ -55,6 +75,13 @@ public class Product {
     @UpdateTimestamp
     private Instant updatedAt;
 
+    /**
+     * URLs of the product images, in gallery order
+     */
+    public java.util.List<String> getImageUrls() {
+        return images.stream().map(ProductImage::getUrl).collect(java.util.stream.Collectors.toList());
+    }
+
     /**
      * Check if product has variants
      */
@@ -63,14 +90,31 @@ public class Product {
     }
 
     /**
-     * Get total stock across all variants
+     * Compute the variant aggregates from the in-memory variants (used before the first insert)
      */
-    public Integer getTotalStock() {
-        if (hasVariants()) {
-            return variants.stream()
-                    .mapToInt(v -> v.getQuantity() != null ? v.getQuantity() : 0)
-                    .sum();
+    public void recalculateVariantAggregates() {
+        int stock = 0;
+        int activeStock = 0;
+        int activeCount = 0;
+        Double min = null;
+        Double max = null;
+        for (ProductVariant variant : variants) {
+            int quantity = variant.getQuantity() != null ? variant.getQuantity() : 0;
+            stock += quantity;
+            if (Boolean.TRUE.equals(variant.getIsActive())) {
+                activeStock += quantity;
+                activeCount++;
+                Double price = variant.getSellingPrice();
+                if (price != null) {
+                    min = min == null || price < min ? price : min;
+                    max = max == null || price > max ? price : max;
+                }
+            }
         }
-        return 0;
+        this.totalStock = stock;
+        this.activeStock = activeStock;
+        this.activeVariantCount = activeCount;
+        this.minPrice = min;
+        this.maxPrice = max;
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.ashanhimantha.product_service.entity;
+
+import com.ashanhimantha.product_service.entity.enums.JobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A product creation submitted for background processing. State changes after submission are
+ * compare-and-set updates in ProductCreationJobRepository, so only the worker holding the current
+ * attempt can finish a job and a job abandoned by a crashed instance is picked up again.
+ */
+@Entity
+@Table(name = "product_creation_jobs", indexes = {
+    @Index(name = "idx_product_creation_jobs_status_available", columnList = "status, available_at")
+})
+@Data
+public class ProductCreationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_creation_jobs_seq")
+    @SequenceGenerator(name = "product_creation_jobs_seq", sequenceName = "product_creation_jobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String requestPayload; // ProductRequest as JSON
+
+    @Column(nullable = false, length = 36)
+    private String stagingKey; // Staged images live in the blob store under jobs/staging/{stagingKey}/
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String stagedFiles; // JSON list of StagedFile, in upload order
+
+    private Long productId; // Set once SUCCEEDED
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // QUEUED: earliest time the resume poller picks the job up. RUNNING: when the worker's lease expires
+    @Column(nullable = false)
+    private Instant availableAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private String createdBy;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant completedAt;
+}
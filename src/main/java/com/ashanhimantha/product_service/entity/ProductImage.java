@@ -0,0 +1,25 @@
+package com.ashanhimantha.product_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a product's image gallery. Width and height come from the image header at upload
+ * time (null for images stored before dimensions were recorded).
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImage {
+
+    @Column(name = "image_url", columnDefinition = "TEXT")
+    private String url;
+
+    private Integer width;
+
+    private Integer height;
+}
@@ -13,13 +13,15 @@ import java.time.Instant;
  */
 @Entity
 @Table(name = "product_variants", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"product_id", "color", "size"})
+    @UniqueConstraint(name = "uk_product_variants_product_color_size", columnNames = {"product_id", "color", "size"}),
+    @UniqueConstraint(name = "uk_product_variants_sku", columnNames = {"sku"})
 })
 @Data
 public class ProductVariant {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_variants_seq")
+    @SequenceGenerator(name = "product_variants_seq", sequenceName = "product_variants_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -41,6 +43,9 @@ public class ProductVariant {
     @Column(nullable = true, columnDefinition = "INT DEFAULT 0")
     private Integer quantity = 0; // Stock quantity for this variant
 
+    @Column(nullable = false)
+    private Integer reorderThreshold = 0; // At or below this quantity the variant is on the low-stock watchlist
+
     @Column(length = 50)
     private String sku; // Stock Keeping Unit - unique identifier for this variant
 
@@ -64,4 +69,12 @@ public class ProductVariant {
         return size;
     }
 
+    /**
+     * Active and at or below its reorder threshold: the condition for a VARIANT_LOW_STOCK event
+     */
+    public boolean isLowStock() {
+        int stock = quantity != null ? quantity : 0;
+        return Boolean.TRUE.equals(isActive) && stock <= reorderThreshold;
+    }
+
 }
@@ -0,0 +1,11 @@
+package com.ashanhimantha.product_service.entity.enums;
+
+/**
+ * Aggregate roots that publish change events through the outbox.
+ * Variants belong to the PRODUCT aggregate so their events stay ordered with the product's.
+ */
+public enum AggregateType {
+    PRODUCT,
+    CATEGORY,
+    CATEGORY_TYPE
+}
@@ -0,0 +1,29 @@
+package com.ashanhimantha.product_service.entity.enums;
+
+/**
+ * Types of catalog change events written to the outbox
+ */
+public enum ChangeEventType {
+    PRODUCT_CREATED(AggregateType.PRODUCT),
+    PRODUCT_UPDATED(AggregateType.PRODUCT),
+    PRODUCT_DELETED(AggregateType.PRODUCT),
+    VARIANT_CREATED(AggregateType.PRODUCT),
+    VARIANT_UPDATED(AggregateType.PRODUCT),
+    VARIANT_LOW_STOCK(AggregateType.PRODUCT), // Quantity dropped from above to at/below the reorder threshold
+    CATEGORY_CREATED(AggregateType.CATEGORY),
+    CATEGORY_UPDATED(AggregateType.CATEGORY),
+    CATEGORY_DELETED(AggregateType.CATEGORY),
+    CATEGORY_TYPE_CREATED(AggregateType.CATEGORY_TYPE),
+    CATEGORY_TYPE_UPDATED(AggregateType.CATEGORY_TYPE),
+    CATEGORY_TYPE_DELETED(AggregateType.CATEGORY_TYPE);
+
+    private final AggregateType aggregateType;
+
+    ChangeEventType(AggregateType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public AggregateType getAggregateType() {
+        return aggregateType;
+    }
+}
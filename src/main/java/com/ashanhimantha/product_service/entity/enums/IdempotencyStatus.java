@@ -0,0 +1,6 @@
+package com.ashanhimantha.product_service.entity.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS, // Claimed by a request that has not finished yet
+    COMPLETED    // Response stored, replayed to retries
+}
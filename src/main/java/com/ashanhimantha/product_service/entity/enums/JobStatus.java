@@ -0,0 +1,8 @@
+package com.ashanhimantha.product_service.entity.enums;
+
+public enum JobStatus {
+    QUEUED,    // Waiting for a worker (new, or requeued after a transient failure)
+    RUNNING,   // Claimed by a worker until its lease expires
+    SUCCEEDED, // Product created
+    FAILED     // Gave up; lastError says why
+}
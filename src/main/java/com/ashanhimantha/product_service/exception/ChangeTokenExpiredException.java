@@ -0,0 +1,7 @@
+package com.ashanhimantha.product_service.exception;
+
+public class ChangeTokenExpiredException extends RuntimeException {
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+}
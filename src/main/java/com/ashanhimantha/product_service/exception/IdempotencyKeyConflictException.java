@@ -0,0 +1,7 @@
+package com.ashanhimantha.product_service.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
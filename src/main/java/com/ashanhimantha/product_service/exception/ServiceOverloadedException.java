@@ -0,0 +1,7 @@
+package com.ashanhimantha.product_service.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ashanhimantha.product_service.filter;
+
+import com.ashanhimantha.product_service.dto.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rejects requests with 503 and Retry-After while the service is saturated, instead of letting them
+ * queue for a database connection: when more than loadshedding.max-in-flight requests are running,
+ * or more than loadshedding.max-pending-connections threads are already waiting on a Hikari pool.
+ * Runs first, before security, so a shed request costs almost nothing. Actuator endpoints are never shed.
+ */
+@Component
+@ConditionalOnProperty(name = "loadshedding.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile List<HikariDataSource> pools;
+
+    @Value("${loadshedding.max-in-flight:200}")
+    private int maxInFlight;
+
+    @Value("${loadshedding.max-pending-connections:20}")
+    private int maxPendingConnections;
+
+    @Value("${loadshedding.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    public LoadSheddingFilter(ObjectProvider<HikariDataSource> dataSources, ObjectMapper objectMapper) {
+        this.dataSources = dataSources;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            int running = inFlight.incrementAndGet();
+            if (running > maxInFlight || pendingConnections() > maxPendingConnections) {
+                log.debug("Shedding {} {} ({} requests in flight)", request.getMethod(), request.getRequestURI(), running);
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Service is busy, please retry shortly"));
+                return;
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Threads waiting for a connection on the busiest pool (primary or replica)
+     */
+    private int pendingConnections() {
+        List<HikariDataSource> current = pools;
+        if (current == null) {
+            current = dataSources.orderedStream().toList();
+            pools = current;
+        }
+        int pending = 0;
+        for (HikariDataSource dataSource : current) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean(); // null until the pool has started
+            if (pool != null) {
+                pending = Math.max(pending, pool.getThreadsAwaitingConnection());
+            }
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ashanhimantha.product_service.filter;
+
+import com.ashanhimantha.product_service.dto.response.ApiResponse;
+import com.ashanhimantha.product_service.ratelimit.GcraRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limit: authenticated clients are keyed by JWT subject, everyone else by client IP.
+ * Runs right after the Spring Security chain so the authentication is already known; public requests
+ * bypass security and are limited by IP. Rejected requests get 429 with Retry-After.
+ */
+@Component
+@ConditionalOnProperty(name = "ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final GcraRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${ratelimit.requests-per-second:20}") double requestsPerSecond,
+                           @Value("${ratelimit.burst:40}") int burst) {
+        this.objectMapper = objectMapper;
+        this.limiter = new GcraRateLimiter(requestsPerSecond, burst);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long waitNanos = limiter.tryAcquire(clientKey(request), System.nanoTime());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, retry after " + retryAfterSeconds + "s"));
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "sub:" + authentication.getName(); // JwtAuthenticationToken name is the sub claim
+        }
+        // Behind a proxy, server.forward-headers-strategy makes this the original client address
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        int evicted = limiter.evictIdle(System.nanoTime());
+        log.debug("Rate limiter evicted {} idle clients, tracking {}", evicted, limiter.trackedClients());
+    }
+}
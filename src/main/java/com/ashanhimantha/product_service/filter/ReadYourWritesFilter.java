@@ -0,0 +1,137 @@
+package com.ashanhimantha.product_service.filter;
+
+import com.ashanhimantha.product_service.datasource.PrimaryReadContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Read-your-writes protection for replica routing.
+ * Write requests are served entirely from the primary and return an X-Consistency-Token (epoch millis
+ * until which the client should read from the primary). Requests that send back a token still inside
+ * that window have their read-only transactions pinned to the primary as well.
+ * The window is measured from when the response starts, i.e. after the write has committed, not from
+ * when the request arrived: a slow write would otherwise use up the window before the replica could
+ * even start replaying it.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CONSISTENCY_TOKEN_HEADER = "X-Consistency-Token";
+
+    @Value("${datasource.replica.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isWrite(request.getMethod())) {
+            PrimaryReadContext.forcePrimary();
+            ConsistencyTokenResponse tokenResponse = new ConsistencyTokenResponse(response);
+            try {
+                filterChain.doFilter(request, tokenResponse);
+            } finally {
+                PrimaryReadContext.clear();
+            }
+            // Responses without a body (204, or a body-less error) never went through the wrapper
+            tokenResponse.stampToken();
+            return;
+        }
+
+        if (isFreshToken(request.getHeader(CONSISTENCY_TOKEN_HEADER), System.currentTimeMillis())) {
+            PrimaryReadContext.forcePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryReadContext.clear();
+        }
+    }
+
+    private boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    /**
+     * A token is honoured only while it lies within one window from now, so a forged far-future
+     * value cannot pin a client to the primary indefinitely.
+     */
+    private boolean isFreshToken(String token, long now) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        try {
+            long primaryUntil = Long.parseLong(token.trim());
+            return primaryUntil > now && primaryUntil <= now + readYourWritesMs;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds the token just before the response is committed. Controllers only start writing the body
+     * once their @Transactional service call has returned, so that is after the commit.
+     */
+    private class ConsistencyTokenResponse extends HttpServletResponseWrapper {
+
+        private boolean stamped;
+
+        ConsistencyTokenResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void stampToken() {
+            if (!stamped && !isCommitted()) {
+                setHeader(CONSISTENCY_TOKEN_HEADER, String.valueOf(System.currentTimeMillis() + readYourWritesMs));
+            }
+            stamped = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stampToken();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stampToken();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stampToken();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stampToken();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stampToken();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            stampToken();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ashanhimantha.product_service.mapper;
+
+import com.ashanhimantha.product_service.dto.response.ChangeEventMessage;
+import com.ashanhimantha.product_service.entity.OutboxEvent;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface OutboxEventMapper {
+
+    @Mapping(target = "occurredAt", source = "createdAt")
+    ChangeEventMessage toMessage(OutboxEvent event);
+
+    List<ChangeEventMessage> toMessageList(List<OutboxEvent> events);
+}
@@ -3,8 +3,10 @@ package com.ashanhimantha.product_service.mapper;
 import com.ashanhimantha.product_service.dto.request.ProductRequest;
 import com.ashanhimantha.product_service.dto.request.VariantRequest;
 import com.ashanhimantha.product_service.dto.response.AdminProductResponse;
+import com.ashanhimantha.product_service.dto.response.AdminProductSummaryResponse;
 import com.ashanhimantha.product_service.dto.response.ProductResponse;
 import com.ashanhimantha.product_service.dto.response.PublicProductResponse;
+import com.ashanhimantha.product_service.dto.response.PublicProductSummaryResponse;
 import com.ashanhimantha.product_service.dto.response.PublicVariantResponse;
 import com.ashanhimantha.product_service.entity.*;
 import org.mapstruct.Mapper;
@@ -18,7 +20,12 @@ public interface ProductMapper {
     @Mapping(target = "category", ignore = true) // We'll set this manually in the service
     @Mapping(target = "status", ignore = true) // Set by business logic
     @Mapping(target = "variants", ignore = true) // Handled manually in service
-    @Mapping(target = "imageUrls", ignore = true) // Handled separately
+    @Mapping(target = "images", ignore = true) // Handled separately
+    @Mapping(target = "totalStock", ignore = true) // Variant aggregates are computed, never mapped
+    @Mapping(target = "activeStock", ignore = true)
+    @Mapping(target = "minPrice", ignore = true)
+    @Mapping(target = "maxPrice", ignore = true)
+    @Mapping(target = "activeVariantCount", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Product toProduct(ProductRequest productRequest);
@@ -27,6 +34,7 @@ public interface ProductMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "product", ignore = true) // Set manually in service
     @Mapping(target = "isActive", ignore = true) // Default value
+    @Mapping(target = "reorderThreshold", defaultValue = "0")
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     ProductVariant toProductVariant(VariantRequest variantRequest);
@@ -35,12 +43,18 @@ public interface ProductMapper {
     ProductResponse toProductResponse(Product product);
 
     // --- Entity to Admin DTO ---
-    @Mapping(target = "totalStock", expression = "java(product.getTotalStock())")
     AdminProductResponse toAdminProductResponse(Product product);
 
+    // --- Entity to Admin list DTO (aggregate columns only, no variants) ---
+    AdminProductSummaryResponse toAdminProductSummaryResponse(Product product);
+
     // --- Entity to Public DTO (for customers) ---
     PublicProductResponse toPublicProductResponse(Product product);
 
+    // --- Entity to Public list DTO (aggregate columns only, no variants) ---
+    @Mapping(target = "inStock", expression = "java(product.getActiveStock() != null && product.getActiveStock() > 0)")
+    PublicProductSummaryResponse toPublicProductSummaryResponse(Product product);
+
     // --- Variant Entity to Public Variant DTO ---
     @Mapping(target = "price", source = "sellingPrice")
     @Mapping(target = "availableStock", source = "quantity")
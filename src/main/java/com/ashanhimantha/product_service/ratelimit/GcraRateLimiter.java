@@ -0,0 +1,59 @@
+package com.ashanhimantha.product_service.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter using the generic cell rate algorithm (GCRA). Each client is a single
+ * AtomicLong holding its theoretical arrival time (TAT), updated with a CAS loop: no locks and no
+ * refill thread. Clients live in a ConcurrentHashMap, whose bins spread contention across clients.
+ * A client whose TAT has passed has a full bucket again, so its entry can be dropped (see evictIdle).
+ */
+public class GcraRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final ConcurrentHashMap<String, AtomicLong> arrivalTimes = new ConcurrentHashMap<>();
+
+    public GcraRateLimiter(double requestsPerSecond, int burst) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    /**
+     * Take one token for the key. Returns 0 when allowed, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong arrivalTime = arrivalTimes.get(key);
+        if (arrivalTime == null) {
+            arrivalTime = arrivalTimes.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long current = arrivalTime.get();
+            long base = Math.max(current, nowNanos);
+            long allowAt = base - burstToleranceNanos;
+            if (nowNanos < allowAt) {
+                return allowAt - nowNanos;
+            }
+            if (arrivalTime.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop clients whose bucket has refilled completely; they start from a full bucket if they return
+     */
+    public int evictIdle(long nowNanos) {
+        int before = arrivalTimes.size();
+        arrivalTimes.values().removeIf(arrivalTime -> arrivalTime.get() - nowNanos <= 0);
+        return before - arrivalTimes.size();
+    }
+
+    public int trackedClients() {
+        return arrivalTimes.size();
+    }
+}
@@ -2,15 +2,25 @@ package com.ashanhimantha.product_service.repository;
 
 import com.ashanhimantha.product_service.entity.Category;
 import com.ashanhimantha.product_service.entity.CategoryType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Optional<Category> findById(Long id);
+
+    // Served from the query cache until a category is written
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
     boolean existsByCategoryType(CategoryType categoryType);
     @Modifying
     @Query(value = "DELETE FROM categories WHERE id = :id", nativeQuery = true)
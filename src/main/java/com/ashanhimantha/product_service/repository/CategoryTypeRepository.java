@@ -1,12 +1,20 @@
 package com.ashanhimantha.product_service.repository;
 
 import com.ashanhimantha.product_service.entity.CategoryType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryTypeRepository extends JpaRepository<CategoryType, Long> {
     boolean existsByName(String name);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<CategoryType> findAll();
 }
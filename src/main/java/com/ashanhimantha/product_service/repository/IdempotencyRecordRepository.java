@@ -0,0 +1,62 @@
+package com.ashanhimantha.product_service.repository;
+
+import com.ashanhimantha.product_service.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claim the key for a new request; an expired record (finished or abandoned) is taken over.
+    // Returns 1 when claimed, 0 when a live record already holds the key
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_records (record_key, fingerprint, status, created_at, expires_at)
+            VALUES (:recordKey, :fingerprint, 'IN_PROGRESS', :now, :expiresAt)
+            ON CONFLICT (record_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = 'IN_PROGRESS',
+                response_status = NULL, response_body = NULL,
+                created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at
+            WHERE idempotency_records.expires_at < :now
+            """, nativeQuery = true)
+    int claim(@Param("recordKey") String recordKey,
+              @Param("fingerprint") String fingerprint,
+              @Param("now") Instant now,
+              @Param("expiresAt") Instant expiresAt);
+
+    // Joins the transaction of the request being recorded, so the response is stored atomically with its effects
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE idempotency_records SET status = 'COMPLETED', response_status = :responseStatus,
+                response_body = :responseBody, expires_at = :expiresAt
+            WHERE record_key = :recordKey
+            """, nativeQuery = true)
+    int complete(@Param("recordKey") String recordKey,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") Instant expiresAt);
+
+    // Give the key back after a failed request so the client can retry it
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_records WHERE record_key = :recordKey AND status = 'IN_PROGRESS'", nativeQuery = true)
+    int release(@Param("recordKey") String recordKey);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_records WHERE expires_at < :now", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now);
+
+    // Not read-only, so it is never routed to a lagging replica
+    @Transactional
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.recordKey = :recordKey")
+    Optional<IdempotencyRecord> findCurrent(@Param("recordKey") String recordKey);
+}
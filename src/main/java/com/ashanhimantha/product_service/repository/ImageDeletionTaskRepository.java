@@ -0,0 +1,25 @@
+package com.ashanhimantha.product_service.repository;
+
+import com.ashanhimantha.product_service.entity.ImageDeletionTask;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ImageDeletionTaskRepository extends JpaRepository<ImageDeletionTask, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): several instances can drain the queue without double work
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM ImageDeletionTask t WHERE t.nextAttemptAt <= :now ORDER BY t.nextAttemptAt")
+    List<ImageDeletionTask> findDue(@Param("now") Instant now, Pageable pageable);
+}
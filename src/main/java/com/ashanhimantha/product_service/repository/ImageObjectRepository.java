@@ -0,0 +1,52 @@
+package com.ashanhimantha.product_service.repository;
+
+import com.ashanhimantha.product_service.entity.ImageObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The write queries use RETURNING, so they run as queries rather than @Modifying updates;
+ * @Transactional keeps them out of the read-only default transaction of query methods.
+ */
+@Repository
+public interface ImageObjectRepository extends JpaRepository<ImageObject, String> {
+
+    // Take a reference, creating the row on first use; returns the new count (1 = object must be uploaded)
+    @Transactional
+    @Query(value = """
+            INSERT INTO image_objects (object_key, content_hash, content_type, size_bytes, ref_count, created_at, updated_at)
+            VALUES (:objectKey, :contentHash, :contentType, :sizeBytes, 1, now(), now())
+            ON CONFLICT (object_key) DO UPDATE SET ref_count = image_objects.ref_count + 1, updated_at = now()
+            RETURNING ref_count
+            """, nativeQuery = true)
+    int acquire(@Param("objectKey") String objectKey,
+                @Param("contentHash") String contentHash,
+                @Param("contentType") String contentType,
+                @Param("sizeBytes") long sizeBytes);
+
+    // Drop a reference; returns the remaining count, or null when the key is not tracked
+    @Transactional
+    @Query(value = """
+            UPDATE image_objects SET ref_count = ref_count - 1, updated_at = now()
+            WHERE object_key = :objectKey AND ref_count > 0
+            RETURNING ref_count
+            """, nativeQuery = true)
+    Integer release(@Param("objectKey") String objectKey);
+
+    // Keys among the given ones that still have references; the orphan collector never queues those
+    @Transactional
+    @Query(value = "SELECT object_key FROM image_objects WHERE object_key IN (:objectKeys) AND ref_count > 0", nativeQuery = true)
+    List<String> findReferencedKeys(@Param("objectKeys") Collection<String> objectKeys);
+
+    // Row locks make the deletion worker's "still unreferenced?" check and the S3 delete atomic
+    // with respect to a concurrent acquire of the same key
+    @Transactional
+    @Query(value = "SELECT * FROM image_objects WHERE object_key IN (:objectKeys) FOR UPDATE", nativeQuery = true)
+    List<ImageObject> lockByObjectKeys(@Param("objectKeys") Collection<String> objectKeys);
+}
@@ -0,0 +1,58 @@
+package com.ashanhimantha.product_service.repository;
+
+import com.ashanhimantha.product_service.entity.OutboxEvent;
+import com.ashanhimantha.product_service.entity.enums.AggregateType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Take or renew the relay lease. Returns 1 when the caller holds it for the next leaseSeconds, 0 when
+    // another instance does. The row lock makes concurrent callers queue, and the loser re-checks the
+    // WHERE against the winner's committed lease
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_relay_lease SET owner = :owner, lease_until = now() + make_interval(secs => :leaseSeconds)
+            WHERE name = 'outbox' AND (owner = :owner OR lease_until < now())
+            """, nativeQuery = true)
+    int acquireRelayLease(@Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    List<OutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids AND e.publishedAt IS NULL")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    // Range scan over idx_outbox_events_aggregate_txid. Only transactions older than the oldest running one
+    // (the snapshot xmin) are served: they have all committed or aborted, so no event can appear behind the cursor
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE aggregate_type = :aggregateType
+              AND (txid, id) > (:sinceTxid, :sinceId)
+              AND txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            ORDER BY txid, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OutboxEvent> findSettledAfter(@Param("aggregateType") String aggregateType,
+                                       @Param("sinceTxid") long sinceTxid,
+                                       @Param("sinceId") long sinceId,
+                                       @Param("limit") int limit);
+
+    @Query("SELECT MIN(e.txid) FROM OutboxEvent e")
+    Long findMinTxid();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,79 @@
+package com.ashanhimantha.product_service.repository;
+
+import com.ashanhimantha.product_service.entity.ProductCreationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductCreationJobRepository extends JpaRepository<ProductCreationJob, Long> {
+
+    // Take a queued job, or one whose worker's lease ran out. Returns 1 when this caller now owns
+    // the job (as attempt number attempts), 0 when it is finished or another worker holds it
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE product_creation_jobs SET status = 'RUNNING', attempts = attempts + 1,
+                available_at = :leaseUntil, started_at = :now
+            WHERE id = :id AND (status = 'QUEUED' OR (status = 'RUNNING' AND available_at < :now))
+            """, nativeQuery = true)
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    // Joins the transaction that creates the product, so the job and the product commit together.
+    // Returns 0 when the lease was lost to another worker, which must roll the creation back
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE product_creation_jobs SET status = 'SUCCEEDED', product_id = :productId,
+                last_error = NULL, completed_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND attempts = :attempt
+            """, nativeQuery = true)
+    int markSucceeded(@Param("id") Long id, @Param("attempt") int attempt,
+                      @Param("productId") Long productId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE product_creation_jobs SET status = 'FAILED', last_error = :error, completed_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND attempts = :attempt
+            """, nativeQuery = true)
+    int markFailed(@Param("id") Long id, @Param("attempt") int attempt,
+                   @Param("error") String error, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE product_creation_jobs SET status = 'QUEUED', last_error = :error, available_at = :availableAt
+            WHERE id = :id AND status = 'RUNNING' AND attempts = :attempt
+            """, nativeQuery = true)
+    int requeue(@Param("id") Long id, @Param("attempt") int attempt,
+                @Param("error") String error, @Param("availableAt") Instant availableAt);
+
+    // Jobs nobody is working on: queued ones whose dispatch was lost (restart, full worker queue)
+    // and running ones whose worker died
+    @Transactional
+    @Query(value = """
+            SELECT id FROM product_creation_jobs
+            WHERE status IN ('QUEUED', 'RUNNING') AND available_at < :now
+            ORDER BY available_at
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findResumable(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM product_creation_jobs WHERE status IN ('SUCCEEDED', 'FAILED') AND completed_at < :cutoff", nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff);
+
+    // Not read-only, so a status poll right after submission is never routed to a lagging replica
+    @Transactional
+    @Query("SELECT j FROM ProductCreationJob j WHERE j.id = :id")
+    Optional<ProductCreationJob> findCurrent(@Param("id") Long id);
+}
@@ -5,9 +5,16 @@ import com.ashanhimantha.product_service.entity.Category;
 import com.ashanhimantha.product_service.entity.enums.Status;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
 
 
 @Repository
@@ -21,4 +28,37 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Check if any products are using this category
     boolean existsByCategory(Category category);
 
+    // Server-side cursor for full exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p WHERE p.status = :status ORDER BY p.id")
+    Stream<Product> streamByStatus(@Param("status") Status status);
+
+    // Row lock that serializes variant writes of one product, so each aggregate refresh
+    // starts after the previous writer committed and sees its changes
+    @Query(value = "SELECT id FROM products WHERE id = :productId FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("productId") Long productId);
+
+    // Recompute the denormalized variant aggregates of one product from product_variants
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE products p SET
+                total_stock = a.total_stock,
+                active_stock = a.active_stock,
+                min_price = a.min_price,
+                max_price = a.max_price,
+                active_variant_count = a.active_variant_count
+            FROM (SELECT COALESCE(SUM(COALESCE(v.quantity, 0)), 0) AS total_stock,
+                         COALESCE(SUM(COALESCE(v.quantity, 0)) FILTER (WHERE v.is_active), 0) AS active_stock,
+                         MIN(v.selling_price) FILTER (WHERE v.is_active) AS min_price,
+                         MAX(v.selling_price) FILTER (WHERE v.is_active) AS max_price,
+                         COUNT(*) FILTER (WHERE v.is_active) AS active_variant_count
+                  FROM product_variants v
+                  WHERE v.product_id = :productId) a
+            WHERE p.id = :productId
+            """, nativeQuery = true)
+    int refreshVariantAggregates(@Param("productId") Long productId);
+
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.ashanhimantha.product_service.repository;
 
+import com.ashanhimantha.product_service.dto.response.CategoryInventoryAnalytics;
 import com.ashanhimantha.product_service.entity.ProductVariant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +14,33 @@ import java.util.List;
 @Repository
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
     List<ProductVariant> findByProductId(Long productId);
+
+    // (color, size) pairs a product already has, for duplicate checks before a bulk insert
+    @Query("SELECT v.color, v.size FROM ProductVariant v WHERE v.product.id = :productId")
+    List<Object[]> findColorSizePairs(@Param("productId") Long productId);
+
     @Query("SELECT CASE WHEN COUNT(pv) > 0 THEN true ELSE false END FROM ProductVariant pv WHERE pv.size IN :sizes")
     boolean existsByAnySize(@Param("sizes") List<String> sizes);
+
+    // Predicate matches the partial index idx_product_variants_low_stock, so only low-stock rows are read
+    @Query(value = "SELECT v FROM ProductVariant v JOIN FETCH v.product WHERE v.isActive = true AND v.quantity <= v.reorderThreshold",
+            countQuery = "SELECT COUNT(v) FROM ProductVariant v WHERE v.isActive = true AND v.quantity <= v.reorderThreshold")
+    Page<ProductVariant> findLowStock(Pageable pageable);
+
+    // One grouped pass over product_variants for the admin inventory dashboard. Reads only the columns
+    // of idx_product_variants_inventory (COUNT(*) rather than COUNT(v.id), which is not in the index)
+    @Query("""
+            SELECT new com.ashanhimantha.product_service.dto.response.CategoryInventoryAnalytics(
+                c.id, c.name,
+                COUNT(DISTINCT p.id), COUNT(*),
+                COALESCE(SUM(COALESCE(v.quantity, 0)), 0L),
+                COALESCE(SUM(v.unitCost * COALESCE(v.quantity, 0)), 0.0),
+                COALESCE(SUM(v.sellingPrice * COALESCE(v.quantity, 0)), 0.0),
+                AVG(v.sellingPrice - v.unitCost),
+                SUM(CASE WHEN v.isActive = true AND COALESCE(v.quantity, 0) <= :lowStockThreshold THEN 1L ELSE 0L END))
+            FROM ProductVariant v JOIN v.product p JOIN p.category c
+            GROUP BY c.id, c.name
+            ORDER BY c.name
+            """)
+    List<CategoryInventoryAnalytics> aggregateInventoryByCategory(@Param("lowStockThreshold") int lowStockThreshold);
 }
@@ -0,0 +1,103 @@
+package com.ashanhimantha.product_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache in front of JWT authentication: the signature check and the authority mapping
+ * run once per token, later requests with the same token reuse the result until the token's exp.
+ * Entries are keyed by the SHA-256 of the token, so raw tokens are never held in memory.
+ * Failed authentications are not cached. Caffeine keeps lookups lock-free; every authenticated
+ * request goes through here, so a single lock around the map would serialize them.
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, CachedAuthentication> entries;
+
+    public CachingJwtAuthenticationManager(AuthenticationProvider delegate, int maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                        long remainingMs = value.getExpiresAt().toEpochMilli() - clock.millis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                // Maintenance (eviction) runs on the calling thread, so the bound holds without a background task
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = tokenHash(bearer.getToken());
+        CachedAuthentication cached = entries.getIfPresent(key); // Null once the token has expired
+        if (cached != null) {
+            // Fresh token object so per-request details are not shared; the authorities are
+            JwtAuthenticationToken result = new JwtAuthenticationToken(
+                    cached.getAuthentication().getToken(), cached.getAuthentication().getAuthorities(),
+                    cached.getAuthentication().getName());
+            result.setDetails(bearer.getDetails());
+            return result;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result instanceof JwtAuthenticationToken jwtAuthentication) {
+            Jwt jwt = jwtAuthentication.getToken();
+            if (jwt.getExpiresAt() != null) {
+                entries.put(key, new CachedAuthentication(jwtAuthentication, jwt.getExpiresAt()));
+            }
+        }
+        return result;
+    }
+
+    private static String tokenHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Value
+    private static class CachedAuthentication {
+        JwtAuthenticationToken authentication;
+        Instant expiresAt;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ashanhimantha.product_service.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches the endpoints that need no authentication. Rules are precompiled into a table keyed by
+ * the first path segment, so a request is checked against the handful of prefixes that share its
+ * first segment instead of the whole rule list. Prefixes match on segment boundaries
+ * ("/api/v1/products" matches "/api/v1/products/5", not "/api/v1/productsX").
+ */
+public final class PublicRequestMatcher implements RequestMatcher {
+
+    private static final String ADMIN_SEGMENT = "/admin";
+
+    private final Map<String, Rule[]> rulesByFirstSegment;
+
+    private PublicRequestMatcher(Map<String, Rule[]> rulesByFirstSegment) {
+        this.rulesByFirstSegment = rulesByFirstSegment;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path.length() < 2 || path.charAt(0) != '/') {
+            return false;
+        }
+        int segmentEnd = path.indexOf('/', 1);
+        Rule[] rules = rulesByFirstSegment.get(segmentEnd < 0 ? path.substring(1) : path.substring(1, segmentEnd));
+        if (rules == null) {
+            return false;
+        }
+        // Longest prefix first, so the most specific rule decides
+        for (Rule rule : rules) {
+            if (matchesPrefix(path, rule.prefix)) {
+                if (!rule.readOnly) {
+                    return true;
+                }
+                String method = request.getMethod();
+                return ("GET".equals(method) || "HEAD".equals(method)) && !path.contains(ADMIN_SEGMENT);
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesPrefix(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static final class Rule {
+        private final String prefix;
+        private final boolean readOnly; // GET/HEAD only, and never an admin path
+
+        private Rule(String prefix, boolean readOnly) {
+            this.prefix = prefix;
+            this.readOnly = readOnly;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        /**
+         * Any method under these prefixes
+         */
+        public Builder anyMethod(String... prefixes) {
+            for (String prefix : prefixes) {
+                rules.add(new Rule(normalize(prefix), false));
+            }
+            return this;
+        }
+
+        /**
+         * GET and HEAD under these prefixes, except paths containing an admin segment
+         */
+        public Builder reads(String... prefixes) {
+            for (String prefix : prefixes) {
+                rules.add(new Rule(normalize(prefix), true));
+            }
+            return this;
+        }
+
+        public PublicRequestMatcher build() {
+            Map<String, List<Rule>> grouped = new HashMap<>();
+            for (Rule rule : rules) {
+                int segmentEnd = rule.prefix.indexOf('/', 1);
+                String firstSegment = segmentEnd < 0 ? rule.prefix.substring(1) : rule.prefix.substring(1, segmentEnd);
+                grouped.computeIfAbsent(firstSegment, segment -> new ArrayList<>()).add(rule);
+            }
+            Map<String, Rule[]> table = new HashMap<>();
+            grouped.forEach((segment, segmentRules) -> {
+                segmentRules.sort(Comparator.comparingInt((Rule rule) -> rule.prefix.length()).reversed());
+                table.put(segment, segmentRules.toArray(new Rule[0]));
+            });
+            return new PublicRequestMatcher(Map.copyOf(table));
+        }
+
+        private static String normalize(String prefix) {
+            if (!prefix.startsWith("/") || prefix.length() < 2) {
+                throw new IllegalArgumentException("Prefix must start with '/' and name a path: " + prefix);
+            }
+            return prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+        }
+    }
+}
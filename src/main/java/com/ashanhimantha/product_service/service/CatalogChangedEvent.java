@@ -0,0 +1,14 @@
+package com.ashanhimantha.product_service.service;
+
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+import lombok.Value;
+
+/**
+ * In-process notification published alongside every outbox record.
+ * Listen with @TransactionalEventListener to react only after the change has committed.
+ */
+@Value
+public class CatalogChangedEvent {
+    ChangeEventType eventType;
+    Long aggregateId;
+}
@@ -2,8 +2,11 @@ package com.ashanhimantha.product_service.service;
 
 import com.ashanhimantha.product_service.dto.request.CategoryRequest;
 import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.storage.UploadedImage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
+
 import java.util.List;
 
 public interface CategoryService {
@@ -13,6 +16,7 @@ public interface CategoryService {
     Category updateCategory(Long categoryId, CategoryRequest categoryRequest);
     Category updateCategoryStatus(Long categoryId, String status);
     void deleteCategory(Long categoryId);
-    void updateCategoryImage(Long categoryId, String imageUrl);
+    void updateCategoryImage(Long categoryId, UploadedImage image); // null removes the image
+    UploadedImage replaceCategoryImage(Long categoryId, MultipartFile image); // Queues the previous image for deletion
     boolean categoryHasProducts(Long categoryId);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.ashanhimantha.product_service.service;
+
+import com.ashanhimantha.product_service.dto.response.ApiResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Run the action at most once per client and Idempotency-Key. A retry with the same key and
+     * fingerprint gets the stored response back without re-executing; without a key the action just runs.
+     */
+    <T> ResponseEntity<ApiResponse<T>> execute(String idempotencyKey, String fingerprint, Class<T> dataType,
+                                               Supplier<ResponseEntity<ApiResponse<T>>> action);
+
+    /**
+     * Fingerprint of an operation and its payload (serialized as JSON, plus the bytes of any uploaded files)
+     */
+    String fingerprint(String operation, Object request, List<MultipartFile> files);
+}
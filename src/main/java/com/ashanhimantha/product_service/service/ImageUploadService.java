@@ -1,14 +1,21 @@
 package com.ashanhimantha.product_service.service;
 
+import com.ashanhimantha.product_service.dto.response.PresignedUploadResponse;
+import com.ashanhimantha.product_service.storage.UploadedImage;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
 public interface ImageUploadService {
-    String uploadCategoryImage(MultipartFile file, Long categoryId);
+    UploadedImage uploadCategoryImage(MultipartFile file, Long categoryId);
     void deleteCategoryImage(String imageUrl);
-    String uploadImage(MultipartFile file, String folder, String identifier);
-    List<String> uploadImages(List<MultipartFile> files, String folder, String identifier);
+    UploadedImage uploadImage(MultipartFile file, String folder, String identifier);
+    List<UploadedImage> uploadImages(List<MultipartFile> files, String folder, String identifier);
     void deleteImage(String imageUrl);
     void deleteImages(List<String> imageUrls);
+    String extractObjectKey(String imageUrl);
+
+    // Direct-to-S3 uploads: presign a PUT for one image, then verify the stored object and return its URL and dimensions
+    PresignedUploadResponse presignUpload(String folder, String identifier, String contentType, long contentLength);
+    UploadedImage confirmUpload(String objectKey);
 }
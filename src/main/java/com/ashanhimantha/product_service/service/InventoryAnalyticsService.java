@@ -0,0 +1,9 @@
+package com.ashanhimantha.product_service.service;
+
+import com.ashanhimantha.product_service.dto.response.InventoryAnalyticsResponse;
+
+public interface InventoryAnalyticsService {
+
+    // Stock value, margin and low-stock counts per category, computed in the database
+    InventoryAnalyticsResponse getInventoryAnalytics(int lowStockThreshold);
+}
@@ -0,0 +1,13 @@
+package com.ashanhimantha.product_service.service;
+
+import com.ashanhimantha.product_service.dto.response.ChangeEventMessage;
+
+import java.util.List;
+
+/**
+ * Destination for change events drained from the outbox.
+ * A batch is either fully accepted or the call throws, in which case the relay retries the same batch.
+ */
+public interface OutboxEventSink {
+    void publish(List<ChangeEventMessage> events) throws Exception;
+}
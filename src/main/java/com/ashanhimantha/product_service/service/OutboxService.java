@@ -0,0 +1,19 @@
+package com.ashanhimantha.product_service.service;
+
+import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.CategoryType;
+import com.ashanhimantha.product_service.entity.Product;
+import com.ashanhimantha.product_service.entity.ProductVariant;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+
+/**
+ * Records catalog change events in the outbox table.
+ * Every method must be called inside the transaction that performs the mutation.
+ */
+public interface OutboxService {
+    void recordProductChange(Product product, ChangeEventType eventType);
+    void recordVariantChange(ProductVariant variant, ChangeEventType eventType);
+    void recordCategoryChange(Category category, ChangeEventType eventType);
+    void recordCategoryTypeChange(CategoryType categoryType, ChangeEventType eventType);
+    void recordDeletion(ChangeEventType eventType, Long aggregateId);
+}
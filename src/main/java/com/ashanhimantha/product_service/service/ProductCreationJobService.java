@@ -0,0 +1,17 @@
+package com.ashanhimantha.product_service.service;
+
+import com.ashanhimantha.product_service.dto.request.ProductRequest;
+import com.ashanhimantha.product_service.dto.response.ProductCreationJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface ProductCreationJobService {
+
+    /**
+     * Stage the images, record the job and hand it to a background worker; returns the QUEUED job
+     */
+    ProductCreationJobResponse submit(ProductRequest productRequest, List<MultipartFile> files);
+
+    ProductCreationJobResponse getJob(Long jobId);
+}
@@ -1,17 +1,24 @@
 package com.ashanhimantha.product_service.service;
 
+import com.ashanhimantha.product_service.dto.request.PresignImagesRequest;
 import com.ashanhimantha.product_service.dto.request.ProductPatchRequest;
 import com.ashanhimantha.product_service.dto.request.ProductRequest;
 import com.ashanhimantha.product_service.dto.request.ProductUpdateRequest;
 import com.ashanhimantha.product_service.dto.response.AdminProductResponse;
+import com.ashanhimantha.product_service.dto.response.AdminProductSummaryResponse;
+import com.ashanhimantha.product_service.dto.response.ChangeFeedResponse;
+import com.ashanhimantha.product_service.dto.response.PresignedUploadResponse;
 import com.ashanhimantha.product_service.dto.response.ProductResponse;
 import com.ashanhimantha.product_service.dto.response.PublicProductResponse;
+import com.ashanhimantha.product_service.dto.response.PublicProductSummaryResponse;
 import com.ashanhimantha.product_service.entity.enums.Status;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ProductService {
@@ -27,14 +34,24 @@ public interface ProductService {
     ProductResponse getActiveProductById(Long productId);
 
     // Public-facing endpoints (for customers)
-    Page<PublicProductResponse> getAllActiveProductsForPublic(Pageable pageable);
+    Page<PublicProductSummaryResponse> getAllActiveProductsForPublic(Pageable pageable);
     PublicProductResponse getActiveProductByIdForPublic(Long productId);
 
+    // Incremental catalog sync: upserts and tombstones after the given change token
+    ChangeFeedResponse getProductChanges(String sinceToken, int limit);
+
+    // Write every active product as one JSON line (NDJSON) without paging
+    void exportActiveProductsForPublic(OutputStream outputStream) throws IOException;
+
     // Upload one or more product images to S3 and associate the URLs with the product
     AdminProductResponse uploadProductImages(Long productId, List<MultipartFile> files);
 
+    // Direct-to-S3 image uploads: presigned PUT URLs scoped to the product, then attach after verification
+    List<PresignedUploadResponse> presignProductImageUploads(Long productId, PresignImagesRequest request);
+    AdminProductResponse confirmProductImageUploads(Long productId, List<String> objectKeys);
+
     // Admin endpoints for full product details
-    Page<AdminProductResponse> getAllProductsForAdmin(Pageable pageable);
+    Page<AdminProductSummaryResponse> getAllProductsForAdmin(Pageable pageable);
     AdminProductResponse getProductByIdForAdmin(Long productId);
     AdminProductResponse updateProductStatusForAdmin(Long productId, Status newStatus);
     Page<ProductResponse> getProductsByStatus(Pageable pageable, String status);
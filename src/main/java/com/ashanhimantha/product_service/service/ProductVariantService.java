@@ -1,17 +1,28 @@
 package com.ashanhimantha.product_service.service;
 
+import com.ashanhimantha.product_service.dto.request.BulkVariantRequest;
 import com.ashanhimantha.product_service.dto.request.StockUpdateRequest;
 import com.ashanhimantha.product_service.dto.request.VariantRequest;
 import com.ashanhimantha.product_service.dto.request.VariantUpdateRequest;
+import com.ashanhimantha.product_service.dto.response.BulkVariantResponse;
 import com.ashanhimantha.product_service.dto.response.ProductVariantResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
 public interface ProductVariantService {
 
     ProductVariantResponse createVariant(Long productId, VariantRequest request);
+
+    // Every size x color combination in one insert batch; rejected combinations are reported per row
+    BulkVariantResponse createVariants(Long productId, BulkVariantRequest request);
+
     ProductVariantResponse getVariantById(Long variantId);
     List<ProductVariantResponse> getVariantsByProductId(Long productId);
     ProductVariantResponse updateVariant(Long variantId, VariantUpdateRequest request);
 
+    // Active variants whose quantity is at or below their reorder threshold
+    Page<ProductVariantResponse> getLowStockVariants(Pageable pageable);
+
 }
@@ -0,0 +1,10 @@
+package com.ashanhimantha.product_service.service;
+
+public interface SkuGenerator {
+
+    /**
+     * Generate a unique SKU such as "TSHI-RED-XL-2S9" from the product name, variant color and size.
+     * The readable prefix is informational; uniqueness comes from the numeric suffix.
+     */
+    String generate(String productName, String color, String size);
+}
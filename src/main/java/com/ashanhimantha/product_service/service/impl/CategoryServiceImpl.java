@@ -4,6 +4,7 @@ package com.ashanhimantha.product_service.service.impl;
 import com.ashanhimantha.product_service.dto.request.CategoryRequest;
 import com.ashanhimantha.product_service.entity.Category;
 import com.ashanhimantha.product_service.entity.CategoryType;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
 import com.ashanhimantha.product_service.entity.enums.Status;
 import com.ashanhimantha.product_service.exception.DuplicateResourceException;
 import com.ashanhimantha.product_service.exception.ResourceNotFoundException;
@@ -11,11 +12,15 @@ import com.ashanhimantha.product_service.repository.CategoryRepository;
 import com.ashanhimantha.product_service.repository.CategoryTypeRepository;
 import com.ashanhimantha.product_service.repository.ProductRepository;
 import com.ashanhimantha.product_service.service.CategoryService;
+import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.service.OutboxService;
+import com.ashanhimantha.product_service.storage.UploadedImage;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
 
 @Service
@@ -24,16 +29,23 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryTypeRepository categoryTypeRepository;
     private final ProductRepository productRepository;
+    private final OutboxService outboxService;
+    private final ImageUploadService imageUploadService;
 
     public CategoryServiceImpl(CategoryRepository categoryRepository,
                                CategoryTypeRepository categoryTypeRepository,
-                               ProductRepository productRepository) {
+                               ProductRepository productRepository,
+                               OutboxService outboxService,
+                               ImageUploadService imageUploadService) {
         this.categoryRepository = categoryRepository;
         this.categoryTypeRepository = categoryTypeRepository;
         this.productRepository = productRepository;
+        this.outboxService = outboxService;
+        this.imageUploadService = imageUploadService;
     }
 
     @Override
+    @Transactional
     public Category createCategory(CategoryRequest categoryRequest) {
         Category category = new Category();
         category.setName(categoryRequest.getName());
@@ -47,7 +59,9 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         try {
-            return categoryRepository.save(category);
+            Category saved = categoryRepository.saveAndFlush(category);
+            outboxService.recordCategoryChange(saved, ChangeEventType.CATEGORY_CREATED);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateResourceException("A category with the name '" + categoryRequest.getName() + "' already exists.");
         }
@@ -67,6 +81,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override // ADD THIS METHOD
+    @Transactional
     public Category updateCategory(Long categoryId, CategoryRequest categoryRequest) {
         Category existingCategory = getCategoryById(categoryId); // Find first, will throw 404 if not found
         existingCategory.setName(categoryRequest.getName());
@@ -82,13 +97,16 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         try {
-            return categoryRepository.save(existingCategory);
+            Category saved = categoryRepository.saveAndFlush(existingCategory);
+            outboxService.recordCategoryChange(saved, ChangeEventType.CATEGORY_UPDATED);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateResourceException("A category with the name '" + categoryRequest.getName() + "' already exists.");
         }
     }
 
     @Override
+    @Transactional
     public Category updateCategoryStatus(Long categoryId, String status) {
         Category existing = getCategoryById(categoryId);
 
@@ -99,7 +117,9 @@ public class CategoryServiceImpl implements CategoryService {
         try {
             Status s = Status.valueOf(status.trim().toUpperCase());
             existing.setStatus(s);
-            return categoryRepository.save(existing);
+            Category saved = categoryRepository.save(existing);
+            outboxService.recordCategoryChange(saved, ChangeEventType.CATEGORY_UPDATED);
+            return saved;
         } catch (IllegalArgumentException ex) {
             throw new IllegalArgumentException("Invalid status value: " + status + ". Allowed values: ACTIVE, INACTIVE");
         }
@@ -118,14 +138,35 @@ public class CategoryServiceImpl implements CategoryService {
             // Permanent delete: No relationships exist
             categoryRepository.delete(category);
         }
+        outboxService.recordDeletion(ChangeEventType.CATEGORY_DELETED, categoryId);
     }
 
     @Override
     @Transactional
-    public void updateCategoryImage(Long categoryId, String imageUrl) {
+    public void updateCategoryImage(Long categoryId, UploadedImage image) {
         Category category = getCategoryById(categoryId);
-        category.setImageUrl(imageUrl);
+        category.setImageUrl(image != null ? image.getUrl() : null);
+        category.setImageWidth(image != null ? image.getWidth() : null);
+        category.setImageHeight(image != null ? image.getHeight() : null);
         categoryRepository.save(category);
+        outboxService.recordCategoryChange(category, ChangeEventType.CATEGORY_UPDATED);
+    }
+
+    /**
+     * Upload, reference swap and release of the previous image share one transaction, so the new
+     * image's reference count only commits together with the category pointing at it
+     */
+    @Override
+    @Transactional
+    public UploadedImage replaceCategoryImage(Long categoryId, MultipartFile image) {
+        Category category = getCategoryById(categoryId);
+        String previousImageUrl = category.getImageUrl();
+        UploadedImage uploadedImage = imageUploadService.uploadCategoryImage(image, categoryId);
+        updateCategoryImage(categoryId, uploadedImage);
+        if (previousImageUrl != null && !previousImageUrl.isEmpty()) {
+            imageUploadService.deleteCategoryImage(previousImageUrl);
+        }
+        return uploadedImage;
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.ashanhimantha.product_service.service.impl;
 
 import com.ashanhimantha.product_service.dto.request.CategoryTypeRequest;
 import com.ashanhimantha.product_service.entity.CategoryType;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
 import com.ashanhimantha.product_service.entity.enums.Status;
 import com.ashanhimantha.product_service.exception.DuplicateResourceException;
 import com.ashanhimantha.product_service.exception.ResourceNotFoundException;
@@ -9,6 +10,7 @@ import com.ashanhimantha.product_service.repository.CategoryRepository;
 import com.ashanhimantha.product_service.repository.CategoryTypeRepository;
 import com.ashanhimantha.product_service.repository.ProductVariantRepository;
 import com.ashanhimantha.product_service.service.CategoryTypeService;
+import com.ashanhimantha.product_service.service.OutboxService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
@@ -23,8 +25,10 @@ public class CategoryTypeServiceImpl implements CategoryTypeService {
     private final CategoryTypeRepository categoryTypeRepository;
     private final CategoryRepository categoryRepository;
     private final ProductVariantRepository productVariantRepository;
+    private final OutboxService outboxService;
 
     @Override
+    @Transactional
     public CategoryType createCategoryType(CategoryTypeRequest request) {
         // Check if a category type with the same name already exists
         if (categoryTypeRepository.existsByName(request.getName())) {
@@ -36,7 +40,9 @@ public class CategoryTypeServiceImpl implements CategoryTypeService {
         categoryType.setSizeOptionsFromList(request.getSizeOptions());
 
         try {
-            return categoryTypeRepository.save(categoryType);
+            CategoryType saved = categoryTypeRepository.saveAndFlush(categoryType);
+            outboxService.recordCategoryTypeChange(saved, ChangeEventType.CATEGORY_TYPE_CREATED);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             // This handles potential race conditions where a duplicate name is inserted
             // between the check and the save operation.
@@ -56,6 +62,7 @@ public class CategoryTypeServiceImpl implements CategoryTypeService {
     }
 
     @Override
+    @Transactional
     public CategoryType updateCategoryType(Long id, CategoryTypeRequest request) {
         // First, retrieve the existing category type
         CategoryType existingCategoryType = getCategoryTypeById(id);
@@ -89,13 +96,16 @@ public class CategoryTypeServiceImpl implements CategoryTypeService {
         existingCategoryType.setStatus(request.getStatus());
 
         try {
-            return categoryTypeRepository.save(existingCategoryType);
+            CategoryType saved = categoryTypeRepository.saveAndFlush(existingCategoryType);
+            outboxService.recordCategoryTypeChange(saved, ChangeEventType.CATEGORY_TYPE_UPDATED);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateResourceException("A category type with the name '" + request.getName() + "' already exists.");
         }
     }
 
     @Override
+    @Transactional
     public CategoryType updateCategoryTypeStatus(Long id, String status) {
         // Retrieve existing category type
         CategoryType existing = getCategoryTypeById(id);
@@ -107,7 +117,9 @@ public class CategoryTypeServiceImpl implements CategoryTypeService {
         try {
             Status s = Status.valueOf(status.trim().toUpperCase());
             existing.setStatus(s);
-            return categoryTypeRepository.save(existing);
+            CategoryType saved = categoryTypeRepository.save(existing);
+            outboxService.recordCategoryTypeChange(saved, ChangeEventType.CATEGORY_TYPE_UPDATED);
+            return saved;
         } catch (IllegalArgumentException ex) {
             throw new IllegalArgumentException("Invalid status value: " + status + ". Allowed values: ACTIVE, INACTIVE");
         }
@@ -126,5 +138,6 @@ public class CategoryTypeServiceImpl implements CategoryTypeService {
         }
 
         categoryTypeRepository.deleteById(id);
+        outboxService.recordDeletion(ChangeEventType.CATEGORY_TYPE_DELETED, id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.ApiResponse;
+import com.ashanhimantha.product_service.entity.IdempotencyRecord;
+import com.ashanhimantha.product_service.entity.enums.IdempotencyStatus;
+import com.ashanhimantha.product_service.exception.IdempotencyKeyConflictException;
+import com.ashanhimantha.product_service.repository.IdempotencyRecordRepository;
+import com.ashanhimantha.product_service.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling backed by the idempotency_records table.
+ * A request first claims its key in a short transaction of its own, so concurrent retries see the
+ * claim straight away. The action then runs in a transaction that also stores the response, so a
+ * stored response always matches committed effects; if the action fails, the claim is released and
+ * the client may retry. A claim whose request never finished expires after in-progress-timeout.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.in-progress-timeout-seconds:300}")
+    private long inProgressTimeoutSeconds;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> ResponseEntity<ApiResponse<T>> execute(String idempotencyKey, String fingerprint, Class<T> dataType,
+                                                      Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String recordKey = sha256Hex(currentClientId() + "\n" + idempotencyKey);
+        Instant now = Instant.now();
+        int claimed = idempotencyRecordRepository.claim(recordKey, fingerprint, now,
+                now.plus(Duration.ofSeconds(inProgressTimeoutSeconds)));
+        if (claimed == 0) {
+            return replay(recordKey, fingerprint, dataType);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                ResponseEntity<ApiResponse<T>> response = action.get();
+                idempotencyRecordRepository.complete(recordKey, response.getStatusCode().value(),
+                        toJson(response.getBody()), Instant.now().plus(Duration.ofHours(ttlHours)));
+                return response;
+            });
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.release(recordKey);
+            throw e;
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> replay(String recordKey, String fingerprint, Class<T> dataType) {
+        IdempotencyRecord record = idempotencyRecordRepository.findCurrent(recordKey)
+                // Released or expired between the claim attempt and this read
+                .orElseThrow(() -> new IdempotencyKeyConflictException("A request with this " + IDEMPOTENCY_KEY_HEADER + " is being retried concurrently, try again"));
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+        }
+        if (record.getStatus() != IdempotencyStatus.COMPLETED) {
+            throw new IdempotencyKeyConflictException("A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+        }
+
+        JavaType responseType = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, dataType);
+        try {
+            ApiResponse<T> body = objectMapper.readValue(record.getResponseBody(), responseType);
+            log.debug("Replayed stored response for idempotency record {}", recordKey);
+            return ResponseEntity.status(record.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    @Override
+    public String fingerprint(String operation, Object request, List<MultipartFile> files) {
+        MessageDigest digest = newSha256();
+        digest.update(operation.getBytes(StandardCharsets.UTF_8));
+        try {
+            digest.update(objectMapper.writeValueAsBytes(request));
+            if (files != null) {
+                byte[] buffer = new byte[8192];
+                for (MultipartFile file : files) {
+                    if (file == null || file.isEmpty()) {
+                        continue;
+                    }
+                    digest.update(String.valueOf(file.getOriginalFilename()).getBytes(StandardCharsets.UTF_8));
+                    try (InputStream in = file.getInputStream()) {
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                            digest.update(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency records", deleted);
+        }
+    }
+
+    /**
+     * Keys are scoped per client, so two clients can never collide on (or read) each other's keys
+     */
+    private String currentClientId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored for idempotent replay", e);
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(newSha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
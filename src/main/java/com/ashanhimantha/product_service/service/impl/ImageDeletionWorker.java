@@ -0,0 +1,114 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.entity.ImageDeletionTask;
+import com.ashanhimantha.product_service.entity.ImageObject;
+import com.ashanhimantha.product_service.repository.ImageDeletionTaskRepository;
+import com.ashanhimantha.product_service.repository.ImageObjectRepository;
+import com.ashanhimantha.product_service.storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the image deletion queue in batches of up to 1000 keys (one S3 DeleteObjects call, the S3 maximum).
+ * Deleted keys are removed from the queue; failed keys stay queued and are retried with exponential backoff.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageDeletionWorker {
+
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ImageDeletionTaskRepository imageDeletionTaskRepository;
+    private final ImageObjectRepository imageObjectRepository;
+    private final BlobStore blobStore;
+
+    @Value("${storage.deletion.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${storage.deletion.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Scheduled(fixedDelayString = "${storage.deletion.interval-ms:5000}")
+    @Transactional
+    public void drain() {
+        List<ImageDeletionTask> batch = imageDeletionTaskRepository.findDue(Instant.now(), PageRequest.of(0, MAX_KEYS_PER_REQUEST));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Re-check reference counts under row locks: a shared object may have been referenced again
+        // since it was queued, and a concurrent upload of the same content waits until this commits
+        Map<String, ImageObject> tracked = new HashMap<>();
+        for (ImageObject imageObject : imageObjectRepository.lockByObjectKeys(
+                batch.stream().map(ImageDeletionTask::getObjectKey).collect(Collectors.toSet()))) {
+            tracked.put(imageObject.getObjectKey(), imageObject);
+        }
+
+        List<ImageDeletionTask> completed = new ArrayList<>(batch.size());
+        List<ImageDeletionTask> toDelete = new ArrayList<>(batch.size());
+        for (ImageDeletionTask task : batch) {
+            ImageObject imageObject = tracked.get(task.getObjectKey());
+            if (imageObject != null && imageObject.getRefCount() > 0) {
+                completed.add(task); // Referenced again, keep the object
+            } else {
+                toDelete.add(task);
+            }
+        }
+
+        Map<String, String> failedKeys = Map.of();
+        if (!toDelete.isEmpty()) {
+            try {
+                failedKeys = blobStore.deleteAll(toDelete.stream().map(ImageDeletionTask::getObjectKey).toList());
+            } catch (Exception e) {
+                log.warn("Failed to delete {} queued images: {}", toDelete.size(), e.getMessage());
+                toDelete.forEach(task -> scheduleRetry(task, e.getMessage()));
+                imageDeletionTaskRepository.deleteAllInBatch(completed);
+                return;
+            }
+        }
+
+        List<ImageObject> released = new ArrayList<>();
+        int deleted = 0;
+        for (ImageDeletionTask task : toDelete) {
+            String error = failedKeys.get(task.getObjectKey());
+            if (error == null) {
+                completed.add(task);
+                deleted++;
+                ImageObject imageObject = tracked.get(task.getObjectKey());
+                if (imageObject != null) {
+                    released.add(imageObject);
+                }
+            } else {
+                scheduleRetry(task, error);
+            }
+        }
+        imageDeletionTaskRepository.deleteAllInBatch(completed);
+        imageObjectRepository.deleteAllInBatch(released);
+        log.info("Deleted {} images from storage, {} still referenced, {} queued for retry",
+                deleted, batch.size() - toDelete.size(), toDelete.size() - deleted);
+    }
+
+    private void scheduleRetry(ImageDeletionTask task, String error) {
+        int attempts = task.getAttempts() + 1;
+        // initialBackoff * 2^(attempts - 1), capped; the shift is bounded to avoid overflow
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        task.setAttempts(attempts);
+        task.setNextAttemptAt(Instant.now().plus(Duration.ofMillis(backoffMs)));
+        task.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+    }
+}
@@ -1,43 +1,79 @@
 package com.ashanhimantha.product_service.service.impl;
 
+import com.ashanhimantha.product_service.bulkhead.Bulkhead;
+import com.ashanhimantha.product_service.bulkhead.Bulkheads;
+import com.ashanhimantha.product_service.dto.response.PresignedUploadResponse;
+import com.ashanhimantha.product_service.entity.ImageDeletionTask;
+import com.ashanhimantha.product_service.exception.ServiceOverloadedException;
+import com.ashanhimantha.product_service.repository.ImageDeletionTaskRepository;
+import com.ashanhimantha.product_service.repository.ImageObjectRepository;
 import com.ashanhimantha.product_service.service.ImageUploadService;
-import lombok.RequiredArgsConstructor;
+import com.ashanhimantha.product_service.storage.BlobInfo;
+import com.ashanhimantha.product_service.storage.BlobStore;
+import com.ashanhimantha.product_service.storage.ImageInspector;
+import com.ashanhimantha.product_service.storage.ImageMetadata;
+import com.ashanhimantha.product_service.storage.PresignedUpload;
+import com.ashanhimantha.product_service.storage.UploadedImage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ImageUploadServiceImpl implements ImageUploadService {
 
-    private final S3Client s3Client;
+    private final BlobStore blobStore;
+    private final Bulkheads bulkheads;
+    private final ImageDeletionTaskRepository imageDeletionTaskRepository;
+    private final ImageObjectRepository imageObjectRepository;
+    private final ImageInspector imageInspector;
+    private final TransactionTemplate transactionTemplate;
 
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
-
-    @Value("${aws.s3.base-url:}")
-    private String s3BaseUrl;
-
-    @Value("${aws.region:ap-southeast-2}")
-    private String awsRegion;
+    @Value("${storage.presign.expiry-minutes:10}")
+    private long presignExpiryMinutes;
 
     private static final String CATEGORY_FOLDER = "categories/";
+    private static final String BLOB_FOLDER = "blobs/"; // Content-addressed uploads: blobs/{sha256}.{ext}
     private static final String PRODUCT_FOLDER = "products/";
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
 
+    public ImageUploadServiceImpl(BlobStore blobStore,
+                                  Bulkheads bulkheads,
+                                  ImageDeletionTaskRepository imageDeletionTaskRepository,
+                                  ImageObjectRepository imageObjectRepository,
+                                  ImageInspector imageInspector,
+                                  PlatformTransactionManager transactionManager) {
+        this.blobStore = blobStore;
+        this.bulkheads = bulkheads;
+        this.imageDeletionTaskRepository = imageDeletionTaskRepository;
+        this.imageObjectRepository = imageObjectRepository;
+        this.imageInspector = imageInspector;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     @Override
-    public String uploadCategoryImage(MultipartFile file, Long categoryId) {
+    public UploadedImage uploadCategoryImage(MultipartFile file, Long categoryId) {
         log.debug("Uploading category image for category ID: {}", categoryId);
         return uploadImage(file, CATEGORY_FOLDER, "category_" + categoryId);
     }
@@ -48,40 +84,57 @@ public class ImageUploadServiceImpl implements ImageUploadService {
     }
 
     @Override
-    public String uploadImage(MultipartFile file, String folder, String identifier) {
-        log.debug("Uploading image to folder: {} with identifier: {}", folder, identifier);
+    public UploadedImage uploadImage(MultipartFile file, String folder, String identifier) {
+        log.debug("Uploading image for {} (requested folder: {})", identifier, folder);
 
         validateFile(file);
 
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = getFileExtension(originalFilename);
-        String fileName = folder + identifier + "_" + UUID.randomUUID() + fileExtension;
-
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .contentType(file.getContentType())
-                    .contentLength(file.getSize())
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+            // One pass over the file: the header is sniffed for format and dimensions while the whole body is hashed
+            MessageDigest digest = newSha256();
+            ImageMetadata metadata;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                metadata = imageInspector.inspect(in, file.getContentType());
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            // The sniffed format, not the client-declared type, decides the stored content type
+            String contentType = metadata.getFormat().getContentType();
+
+            // Content-addressed key: identical images share one object, whichever product or category uploads them
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            String fileName = BLOB_FOLDER + contentHash + metadata.getFormat().getExtension();
+
+            // Joins the caller's transaction, which holds the row lock until the reference is committed, so the
+            // deletion worker cannot remove the object in between. A count above 1 only proves an earlier
+            // reference, not a stored object (its upload may have failed), hence the existence check
+            int refCount = imageObjectRepository.acquire(fileName, contentHash, contentType, file.getSize());
+            boolean stored;
+            try {
+                stored = storeIfMissing(fileName, file, contentType, refCount == 1);
+            } catch (IOException | RuntimeException e) {
+                // Without an enclosing transaction the reference is already committed; give it back
+                imageObjectRepository.release(fileName);
+                throw e;
+            }
+            if (stored) {
+                releaseOnRollback(fileName, contentHash, contentType, file.getSize());
+            } else {
+                log.info("Image already stored, skipped upload: {} ({} references)", fileName, refCount);
+            }
 
-            String imageUrl = buildImageUrl(fileName);
-            log.info("Successfully uploaded image: {}", imageUrl);
-            return imageUrl;
+            return new UploadedImage(blobStore.publicUrl(fileName), metadata.getWidth(), metadata.getHeight());
 
         } catch (IOException e) {
             log.error("Failed to upload image: {}", e.getMessage());
-            throw new RuntimeException("Failed to upload image to S3", e);
+            throw new RuntimeException("Failed to store uploaded image", e);
         }
     }
 
     @Override
-    public List<String> uploadImages(List<MultipartFile> files, String folder, String identifier) {
+    public List<UploadedImage> uploadImages(List<MultipartFile> files, String folder, String identifier) {
         log.debug("Uploading {} images to folder: {} with identifier: {}", files.size(), folder, identifier);
 
-        List<String> imageUrls = new ArrayList<>();
+        List<UploadedImage> images = new ArrayList<>();
 
         for (MultipartFile file : files) {
             if (file == null || file.isEmpty()) {
@@ -89,53 +142,157 @@ public class ImageUploadServiceImpl implements ImageUploadService {
             }
 
             try {
-                String imageUrl = uploadImage(file, folder, identifier);
-                imageUrls.add(imageUrl);
+                images.add(uploadImage(file, folder, identifier));
             } catch (Exception e) {
                 log.error("Failed to upload one image in batch: {}", e.getMessage());
-                // Clean up previously uploaded images on failure
-                deleteImages(imageUrls);
-                throw new RuntimeException("Failed to upload images to S3. All uploads rolled back.", e);
+                // Release the references taken so far. If the caller's transaction rolls back instead,
+                // the objects stored by this batch are queued by the rollback callbacks of uploadImage
+                deleteImages(images.stream().map(UploadedImage::getUrl).toList());
+                if (e instanceof ServiceOverloadedException overloaded) {
+                    throw overloaded;
+                }
+                throw new RuntimeException("Failed to upload images. All uploads rolled back.", e);
             }
         }
 
-        log.info("Successfully uploaded {} images", imageUrls.size());
-        return imageUrls;
+        log.info("Successfully uploaded {} images", images.size());
+        return images;
     }
 
     @Override
     public void deleteImage(String imageUrl) {
-        if (imageUrl == null || imageUrl.isEmpty()) {
-            return;
-        }
+        deleteImages(imageUrl != null ? List.of(imageUrl) : List.of());
+    }
 
+    /**
+     * Upload the object unless it is known to be stored already. Returns false when the upload was skipped.
+     */
+    private boolean storeIfMissing(String fileName, MultipartFile file, String contentType, boolean firstReference) throws IOException {
+        Bulkhead storageIo = bulkheads.storageIo();
+        storageIo.enter();
         try {
-            String fileName = extractFileNameFromUrl(imageUrl);
-
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .build();
-
-            s3Client.deleteObject(deleteObjectRequest);
-            log.info("Successfully deleted image: {}", fileName);
+            if (!firstReference && blobStore.stat(fileName).isPresent()) {
+                return false;
+            }
+            try (InputStream content = file.getInputStream()) {
+                blobStore.put(fileName, content, file.getSize(), contentType);
+            }
+            log.info("Successfully uploaded image: {}", fileName);
+            return true;
+        } finally {
+            storageIo.exit();
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to delete image: {}", e.getMessage());
-            // Don't throw exception, just log it - deletion failure shouldn't block operations
+    /**
+     * An object stored under the caller's transaction loses the reference taken for it if that transaction
+     * rolls back (a failed product creation, a job that lost its lease), and would stay in storage until the
+     * orphan collector finds it. After such a rollback the reference is taken and dropped again in a new
+     * transaction, like the cleanup in confirmUpload: the row it leaves behind makes the deletion worker's
+     * recheck see a concurrent upload of the same content, and an unreferenced object is queued.
+     */
+    private void releaseOnRollback(String fileName, String contentHash, String contentType, long size) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return; // The reference is already committed
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        imageObjectRepository.acquire(fileName, contentHash, contentType, size);
+                        deleteImage(fileName);
+                    });
+                } catch (RuntimeException e) {
+                    log.warn("Failed to queue {} after its upload was rolled back, left for the orphan collector: {}",
+                            fileName, e.getMessage());
+                }
+            }
+        });
     }
 
+    /**
+     * Drop one reference per URL and queue objects that are no longer referenced (or are not
+     * reference-counted) for deletion by the ImageDeletionWorker instead of deleting them inline.
+     * Joins the caller's transaction when there is one, so nothing is released unless the change
+     * that dropped the references commits.
+     */
     @Override
     public void deleteImages(List<String> imageUrls) {
         if (imageUrls == null || imageUrls.isEmpty()) {
             return;
         }
 
-        log.debug("Deleting {} images", imageUrls.size());
-
+        Instant now = Instant.now();
+        List<ImageDeletionTask> tasks = new ArrayList<>(imageUrls.size());
         for (String imageUrl : imageUrls) {
-            deleteImage(imageUrl);
+            if (imageUrl == null || imageUrl.isEmpty()) {
+                continue;
+            }
+            String objectKey = extractObjectKey(imageUrl);
+            Integer remaining = imageObjectRepository.release(objectKey);
+            if (remaining != null && remaining > 0) {
+                continue; // Still shared with another product or category
+            }
+            ImageDeletionTask task = new ImageDeletionTask();
+            task.setObjectKey(objectKey);
+            task.setNextAttemptAt(now);
+            tasks.add(task);
+        }
+        imageDeletionTaskRepository.saveAll(tasks);
+        log.debug("Queued {} images for deletion", tasks.size());
+    }
+
+    @Override
+    public PresignedUploadResponse presignUpload(String folder, String identifier, String contentType, long contentLength) {
+        validateImage(contentType, contentLength);
+
+        String fileName = folder + identifier + "_" + UUID.randomUUID() + getFileExtensionForContentType(contentType);
+        PresignedUpload presigned = blobStore.presignPut(fileName, contentType, contentLength,
+                Duration.ofMinutes(presignExpiryMinutes));
+
+        PresignedUploadResponse response = new PresignedUploadResponse();
+        response.setObjectKey(fileName);
+        response.setUploadUrl(presigned.getUrl());
+        response.setMethod(presigned.getMethod());
+        response.setHeaders(presigned.getHeaders());
+        response.setExpiresAt(presigned.getExpiresAt());
+        return response;
+    }
+
+    @Override
+    public UploadedImage confirmUpload(String objectKey) {
+        BlobInfo stored = blobStore.stat(objectKey)
+                .orElseThrow(() -> new IllegalArgumentException("Uploaded image not found: " + objectKey));
+
+        ImageMetadata metadata;
+        try {
+            validateImage(stored.getContentType(), stored.getSize());
+            metadata = readStoredImageHeader(objectKey, stored.getContentType());
+        } catch (IllegalArgumentException e) {
+            // Never attached, so nothing else would clean it up; queued outside the caller's (failing) transaction
+            transactionTemplate.executeWithoutResult(status -> deleteImage(objectKey));
+            throw e;
+        }
+        return new UploadedImage(blobStore.publicUrl(objectKey), metadata.getWidth(), metadata.getHeight());
+    }
+
+    /**
+     * Stream only the header of a stored object through the inspector; closing abandons the rest
+     */
+    private ImageMetadata readStoredImageHeader(String objectKey, String contentType) {
+        Bulkhead storageIo = bulkheads.storageIo();
+        storageIo.enter();
+        try (InputStream object = blobStore.open(objectKey)) {
+            return imageInspector.inspect(object, contentType);
+        } catch (IOException e) {
+            log.error("Failed to read uploaded image {}: {}", objectKey, e.getMessage());
+            throw new RuntimeException("Failed to read uploaded image", e);
+        } finally {
+            storageIo.exit();
         }
     }
 
@@ -143,12 +300,18 @@ public class ImageUploadServiceImpl implements ImageUploadService {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty");
         }
+        validateImage(file.getContentType(), file.getSize());
+    }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
+    private void validateImage(String contentType, long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+
+        if (size > MAX_FILE_SIZE) {
             throw new IllegalArgumentException("File size exceeds maximum limit of 5MB");
         }
 
-        String contentType = file.getContentType();
         if (contentType == null || !contentType.startsWith("image/")) {
             throw new IllegalArgumentException("File must be an image");
         }
@@ -168,29 +331,36 @@ public class ImageUploadServiceImpl implements ImageUploadService {
         }
     }
 
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return ".jpg";
+    private MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return filename.substring(filename.lastIndexOf("."));
     }
 
-    private String buildImageUrl(String fileName) {
-        if (s3BaseUrl != null && !s3BaseUrl.isEmpty()) {
-            return s3BaseUrl + "/" + fileName;
-        }
-        // Fallback to standard S3 URL format
-        return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, awsRegion, fileName);
+    private String getFileExtensionForContentType(String contentType) {
+        return switch (contentType) {
+            case "image/png" -> ".png";
+            case "image/webp" -> ".webp";
+            default -> ".jpg";
+        };
     }
 
-    private String extractFileNameFromUrl(String imageUrl) {
-        // Extract filename from full URL
-        // Example: https://bucket.s3.amazonaws.com/categories/image.jpg -> categories/image.jpg
-        if (imageUrl.contains(bucketName)) {
-            int index = imageUrl.indexOf(bucketName) + bucketName.length() + 1;
-            return imageUrl.substring(index);
+    @Override
+    public String extractObjectKey(String imageUrl) {
+        // Extract the object key from a URL built by BlobStore.publicUrl
+        // Example: https://cdn.example.com/categories/image.jpg -> categories/image.jpg
+        String baseUrl = blobStore.publicUrl("");
+        if (imageUrl.startsWith(baseUrl)) {
+            return imageUrl.substring(baseUrl.length());
+        }
+        // Example: https://bucket.s3.region.amazonaws.com/categories/image.jpg -> categories/image.jpg
+        if (imageUrl.startsWith("http://") || imageUrl.startsWith("https://")) {
+            String path = URI.create(imageUrl).getPath();
+            return path.startsWith("/") ? path.substring(1) : path;
         }
-        // If it's already just the filename
+        // If it's already just the key
         return imageUrl;
     }
 }
@@ -0,0 +1,50 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.CategoryInventoryAnalytics;
+import com.ashanhimantha.product_service.dto.response.InventoryAnalyticsResponse;
+import com.ashanhimantha.product_service.repository.ProductVariantRepository;
+import com.ashanhimantha.product_service.service.InventoryAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryAnalyticsServiceImpl implements InventoryAnalyticsService {
+
+    public static final String INVENTORY_ANALYTICS_CACHE = "inventory-analytics"; // TTL set in ehcache.xml
+
+    private final ProductVariantRepository productVariantRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = INVENTORY_ANALYTICS_CACHE, key = "#lowStockThreshold")
+    public InventoryAnalyticsResponse getInventoryAnalytics(int lowStockThreshold) {
+        List<CategoryInventoryAnalytics> categories = productVariantRepository.aggregateInventoryByCategory(lowStockThreshold);
+
+        long totalUnits = 0;
+        double totalAtCost = 0;
+        double totalAtPrice = 0;
+        long totalLowStock = 0;
+        for (CategoryInventoryAnalytics category : categories) {
+            totalUnits += category.getTotalUnits();
+            totalAtCost += category.getStockValueAtCost();
+            totalAtPrice += category.getStockValueAtPrice();
+            totalLowStock += category.getLowStockVariantCount();
+        }
+
+        InventoryAnalyticsResponse response = new InventoryAnalyticsResponse();
+        response.setLowStockThreshold(lowStockThreshold);
+        response.setCategories(categories);
+        response.setTotalUnits(totalUnits);
+        response.setTotalStockValueAtCost(totalAtCost);
+        response.setTotalStockValueAtPrice(totalAtPrice);
+        response.setTotalLowStockVariants(totalLowStock);
+        response.setGeneratedAt(Instant.now());
+        return response;
+    }
+}
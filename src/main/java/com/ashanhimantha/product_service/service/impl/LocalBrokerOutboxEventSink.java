@@ -0,0 +1,27 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.ChangeEventMessage;
+import com.ashanhimantha.product_service.service.OutboxEventSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Stand-in for a message broker: republishes change events as Spring application events
+ * so in-process listeners (@EventListener ChangeEventMessage) can consume them.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalBrokerOutboxEventSink implements OutboxEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<ChangeEventMessage> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.ChangeEventMessage;
+import com.ashanhimantha.product_service.service.OutboxEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes each change event as a single JSON line to the "catalog.changes" logger.
+ * Route that logger to its own appender to get a change log file.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "log", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LoggingOutboxEventSink implements OutboxEventSink {
+
+    private static final Logger CHANGE_LOG = LoggerFactory.getLogger("catalog.changes");
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publish(List<ChangeEventMessage> events) throws Exception {
+        for (ChangeEventMessage event : events) {
+            CHANGE_LOG.info(objectMapper.writeValueAsString(event));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.entity.ImageDeletionTask;
+import com.ashanhimantha.product_service.repository.ImageDeletionTaskRepository;
+import com.ashanhimantha.product_service.repository.ImageObjectRepository;
+import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.storage.BlobInfo;
+import com.ashanhimantha.product_service.storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles the image folders in the blob store against the database and queues unreferenced objects for deletion.
+ * Orphans come from transactions that rolled back after their upload succeeded.
+ *
+ * Referenced keys are held as a sorted long[] of 64-bit key hashes (8 bytes per image) instead of a
+ * set of strings. A hash collision can only make an orphan look referenced, never the other way round,
+ * so a referenced image is never deleted. Objects younger than the grace period are skipped, which
+ * covers uploads whose transaction has not committed yet.
+ *
+ * Content-addressed blobs can be referenced again at any age, by an upload that commits after the
+ * reference snapshot was taken. The collector therefore never touches reference counts: it only queues
+ * keys, skips tracked keys whose count is above zero, and the ImageDeletionWorker re-checks the count
+ * under a row lock before anything is deleted.
+ */
+@Component
+@Slf4j
+public class OrphanImageCollector {
+
+    private static final List<String> IMAGE_PREFIXES = List.of("blobs/", "products/", "categories/");
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private static final int REFERENCE_FETCH_SIZE = 5000;
+    private static final String REFERENCED_IMAGES_SQL =
+            "SELECT image_url FROM product_images WHERE image_url IS NOT NULL "
+                    + "UNION ALL SELECT image_url FROM categories WHERE image_url IS NOT NULL";
+
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageUploadService imageUploadService;
+    private final ImageObjectRepository imageObjectRepository;
+    private final ImageDeletionTaskRepository imageDeletionTaskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter reclaimedBytes;
+    private final Counter reclaimedObjects;
+
+    @Value("${storage.gc.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    public OrphanImageCollector(BlobStore blobStore, JdbcTemplate jdbcTemplate,
+                                ImageUploadService imageUploadService, ImageObjectRepository imageObjectRepository,
+                                ImageDeletionTaskRepository imageDeletionTaskRepository,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageUploadService = imageUploadService;
+        this.imageObjectRepository = imageObjectRepository;
+        this.imageDeletionTaskRepository = imageDeletionTaskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.reclaimedBytes = Counter.builder("storage.gc.reclaimed")
+                .baseUnit("bytes")
+                .description("Bytes of orphaned images queued for deletion")
+                .register(meterRegistry);
+        this.reclaimedObjects = Counter.builder("storage.gc.orphans")
+                .description("Orphaned images queued for deletion")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${storage.gc.cron:0 30 4 * * *}")
+    public void collect() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+        long[] referenced = loadReferencedKeyHashes();
+
+        long scanned = 0;
+        long orphanCount = 0;
+        long orphanBytes = 0;
+        List<BlobInfo> pending = new ArrayList<>(DELETE_BATCH_SIZE);
+
+        for (String prefix : IMAGE_PREFIXES) {
+            // Listed lazily (S3: one page of up to 1000 keys at a time)
+            try (Stream<BlobInfo> objects = blobStore.list(prefix)) {
+                for (Iterator<BlobInfo> it = objects.iterator(); it.hasNext(); ) {
+                    BlobInfo object = it.next();
+                    scanned++;
+                    if (!object.getLastModified().isBefore(cutoff)
+                            || Arrays.binarySearch(referenced, hash(object.getKey())) >= 0) {
+                        continue;
+                    }
+                    pending.add(object);
+                    if (pending.size() == DELETE_BATCH_SIZE) {
+                        List<BlobInfo> queued = queueUnreferenced(pending);
+                        orphanCount += queued.size();
+                        orphanBytes += queued.stream().mapToLong(BlobInfo::getSize).sum();
+                        pending = new ArrayList<>(DELETE_BATCH_SIZE);
+                    }
+                }
+            }
+        }
+        List<BlobInfo> queued = queueUnreferenced(pending);
+        orphanCount += queued.size();
+        orphanBytes += queued.stream().mapToLong(BlobInfo::getSize).sum();
+
+        reclaimedObjects.increment(orphanCount);
+        reclaimedBytes.increment(orphanBytes);
+        log.info("Orphan image scan: {} objects scanned, {} referenced, {} orphans ({} bytes) queued for deletion",
+                scanned, referenced.length, orphanCount, orphanBytes);
+    }
+
+    /**
+     * Queue the candidates that are not tracked, or tracked with no references left. Reference counts are
+     * left alone: releasing here could drop a reference taken after the snapshot. Returns the queued objects.
+     */
+    private List<BlobInfo> queueUnreferenced(List<BlobInfo> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Set<String> referenced = new HashSet<>(imageObjectRepository.findReferencedKeys(
+                candidates.stream().map(BlobInfo::getKey).toList()));
+        Instant now = Instant.now();
+        List<BlobInfo> orphans = new ArrayList<>(candidates.size());
+        List<ImageDeletionTask> tasks = new ArrayList<>(candidates.size());
+        for (BlobInfo candidate : candidates) {
+            if (referenced.contains(candidate.getKey())) {
+                continue;
+            }
+            ImageDeletionTask task = new ImageDeletionTask();
+            task.setObjectKey(candidate.getKey());
+            task.setNextAttemptAt(now);
+            tasks.add(task);
+            orphans.add(candidate);
+        }
+        imageDeletionTaskRepository.saveAll(tasks);
+        return orphans;
+    }
+
+    private long[] loadReferencedKeyHashes() {
+        long[][] holder = {new long[4096]};
+        int[] size = {0};
+        // Inside a transaction so the driver honours the fetch size and streams the rows
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(REFERENCED_IMAGES_SQL);
+                    statement.setFetchSize(REFERENCE_FETCH_SIZE);
+                    return statement;
+                },
+                rs -> {
+                    if (size[0] == holder[0].length) {
+                        holder[0] = Arrays.copyOf(holder[0], holder[0].length * 2);
+                    }
+                    holder[0][size[0]++] = hash(imageUploadService.extractObjectKey(rs.getString(1)));
+                }));
+        long[] hashes = Arrays.copyOf(holder[0], size[0]);
+        Arrays.sort(hashes);
+        return hashes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's UTF-16 chars
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.entity.OutboxEvent;
+import com.ashanhimantha.product_service.mapper.OutboxEventMapper;
+import com.ashanhimantha.product_service.repository.OutboxEventRepository;
+import com.ashanhimantha.product_service.service.OutboxEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drains unpublished outbox events to the configured sink in id order.
+ * One instance relays at a time, holding a lease in outbox_relay_lease that it renews on every run.
+ * The batch is read in a short transaction and published with no transaction open, so a slow sink does
+ * not pin a connection; a second short transaction then marks it published. A failed batch is left
+ * unpublished and retried as a whole on the next run, so events for the same aggregate are never
+ * delivered out of order. Delivery is at-least-once.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventMapper outboxEventMapper;
+    private final OutboxEventSink outboxEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    // Longer than a publish can take: a lease that lapses mid-publish lets another instance resend the batch
+    @Value("${outbox.relay.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${outbox.retention-days:7}")
+    private int retentionDays;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxEventMapper outboxEventMapper,
+                       OutboxEventSink outboxEventSink, PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventMapper = outboxEventMapper;
+        this.outboxEventSink = outboxEventSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status ->
+                outboxEventRepository.acquireRelayLease(instanceId, leaseSeconds) == 1
+                        ? outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize))
+                        : List.of());
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            outboxEventSink.publish(outboxEventMapper.toMessageList(batch));
+        } catch (Exception e) {
+            log.warn("Failed to publish {} outbox events starting at id {}: {}", batch.size(), batch.get(0).getId(), e.getMessage());
+            return;
+        }
+
+        outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), Instant.now());
+        log.debug("Published {} outbox events up to id {}", batch.size(), batch.get(batch.size() - 1).getId());
+    }
+
+    @Scheduled(cron = "${outbox.cleanup.cron:0 0 3 * * *}")
+    @Transactional
+    public void purgePublished() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        int deleted = outboxEventRepository.deletePublishedBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Purged {} published outbox events older than {} days", deleted, retentionDays);
+        }
+    }
+}
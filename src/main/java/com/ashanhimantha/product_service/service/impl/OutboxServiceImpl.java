@@ -0,0 +1,102 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.CategoryType;
+import com.ashanhimantha.product_service.entity.OutboxEvent;
+import com.ashanhimantha.product_service.entity.Product;
+import com.ashanhimantha.product_service.entity.ProductVariant;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+import com.ashanhimantha.product_service.repository.OutboxEventRepository;
+import com.ashanhimantha.product_service.service.CatalogChangedEvent;
+import com.ashanhimantha.product_service.service.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProductChange(Product product, ChangeEventType eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", product.getId());
+        payload.put("name", product.getName());
+        payload.put("status", product.getStatus());
+        payload.put("productType", product.getProductType());
+        // getId() on the lazy category proxy does not initialize it
+        payload.put("categoryId", product.getCategory() != null ? product.getCategory().getId() : null);
+        save(eventType, product.getId(), payload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordVariantChange(ProductVariant variant, ChangeEventType eventType) {
+        Long productId = variant.getProduct().getId();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", variant.getId());
+        payload.put("productId", productId);
+        payload.put("sku", variant.getSku());
+        payload.put("color", variant.getColor());
+        payload.put("size", variant.getSize());
+        payload.put("sellingPrice", variant.getSellingPrice());
+        payload.put("quantity", variant.getQuantity());
+        payload.put("reorderThreshold", variant.getReorderThreshold());
+        payload.put("isActive", variant.getIsActive());
+        save(eventType, productId, payload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCategoryChange(Category category, ChangeEventType eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", category.getId());
+        payload.put("name", category.getName());
+        payload.put("status", category.getStatus());
+        payload.put("categoryTypeId", category.getCategoryType() != null ? category.getCategoryType().getId() : null);
+        save(eventType, category.getId(), payload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCategoryTypeChange(CategoryType categoryType, ChangeEventType eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", categoryType.getId());
+        payload.put("name", categoryType.getName());
+        payload.put("status", categoryType.getStatus());
+        payload.put("sizeOptions", categoryType.getSizeOptionsAsList());
+        save(eventType, categoryType.getId(), payload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(ChangeEventType eventType, Long aggregateId) {
+        save(eventType, aggregateId, Map.of("id", aggregateId));
+    }
+
+    private void save(ChangeEventType eventType, Long aggregateId, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(eventType.getAggregateType());
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize change event payload", e);
+        }
+        outboxEventRepository.save(event);
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(eventType, aggregateId));
+    }
+}
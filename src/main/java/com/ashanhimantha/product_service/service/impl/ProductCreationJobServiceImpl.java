@@ -0,0 +1,280 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.request.ProductRequest;
+import com.ashanhimantha.product_service.dto.response.AdminProductResponse;
+import com.ashanhimantha.product_service.dto.response.ProductCreationJobResponse;
+import com.ashanhimantha.product_service.entity.ProductCreationJob;
+import com.ashanhimantha.product_service.entity.enums.JobStatus;
+import com.ashanhimantha.product_service.exception.DuplicateResourceException;
+import com.ashanhimantha.product_service.exception.ResourceNotFoundException;
+import com.ashanhimantha.product_service.repository.ProductCreationJobRepository;
+import com.ashanhimantha.product_service.service.ProductCreationJobService;
+import com.ashanhimantha.product_service.service.ProductService;
+import com.ashanhimantha.product_service.storage.JobStagingArea;
+import com.ashanhimantha.product_service.storage.StagedFile;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs product creation in the background on a small bounded worker pool.
+ * A job is durable from the moment submit returns: its request is in product_creation_jobs and its
+ * images are in the JobStagingArea. Workers claim a job with a lease (compare-and-set on status and
+ * attempt number), and the product is created in the same transaction that marks the job SUCCEEDED,
+ * so a job is never applied twice even if a lease expires mid-run. Jobs whose dispatch was lost (full
+ * worker queue, restart) or whose worker died are picked up again by the resume poller.
+ */
+@Service
+@Slf4j
+public class ProductCreationJobServiceImpl implements ProductCreationJobService {
+
+    private static final int MAX_IMAGES = 6;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final TypeReference<List<StagedFile>> MANIFEST_TYPE = new TypeReference<>() {};
+
+    private final ProductCreationJobRepository jobRepository;
+    private final ProductService productService;
+    private final JobStagingArea stagingArea;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+
+    @Value("${product-jobs.lease-seconds:600}")
+    private long leaseSeconds;
+
+    @Value("${product-jobs.dispatch-grace-seconds:60}")
+    private long dispatchGraceSeconds;
+
+    @Value("${product-jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${product-jobs.initial-backoff-ms:10000}")
+    private long initialBackoffMs;
+
+    @Value("${product-jobs.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${product-jobs.resume-batch-size:50}")
+    private int resumeBatchSize;
+
+    @Value("${product-jobs.retention-hours:168}")
+    private long retentionHours;
+
+    public ProductCreationJobServiceImpl(ProductCreationJobRepository jobRepository, ProductService productService,
+                                         JobStagingArea stagingArea, ObjectMapper objectMapper,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${product-jobs.workers:2}") int workerCount,
+                                         @Value("${product-jobs.queue-capacity:100}") int queueCapacity) {
+        this.jobRepository = jobRepository;
+        this.productService = productService;
+        this.stagingArea = stagingArea;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Bounded on both threads and queue: a burst of submissions waits in the table, not in memory
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("product-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public ProductCreationJobResponse submit(ProductRequest productRequest, List<MultipartFile> files) {
+        List<MultipartFile> validFiles = files != null ?
+                files.stream().filter(f -> f != null && !f.isEmpty()).toList()
+                : List.of();
+        if (validFiles.isEmpty()) {
+            throw new IllegalArgumentException("At least 1 valid image is required when creating a product");
+        }
+        if (validFiles.size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("Cannot add " + validFiles.size() + " images. Maximum allowed is " + MAX_IMAGES + " images.");
+        }
+
+        List<StagedFile> manifest = new ArrayList<>(validFiles.size());
+        String stagingKey = stagingArea.stage(validFiles, manifest);
+
+        ProductCreationJob job = new ProductCreationJob();
+        job.setStatus(JobStatus.QUEUED);
+        job.setStagingKey(stagingKey);
+        job.setAvailableAt(Instant.now().plus(Duration.ofSeconds(dispatchGraceSeconds)));
+        job.setCreatedBy(currentUser());
+        try {
+            job.setRequestPayload(objectMapper.writeValueAsString(productRequest));
+            job.setStagedFiles(objectMapper.writeValueAsString(manifest));
+            job = jobRepository.save(job);
+        } catch (JsonProcessingException e) {
+            stagingArea.delete(stagingKey);
+            throw new IllegalStateException("Failed to record product job", e);
+        } catch (RuntimeException e) {
+            stagingArea.delete(stagingKey);
+            throw e;
+        }
+
+        log.info("Queued product creation job {}", job.getId());
+        dispatch(job.getId());
+        return toResponse(job);
+    }
+
+    @Override
+    public ProductCreationJobResponse getJob(Long jobId) {
+        return jobRepository.findCurrent(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Product job not found with id: " + jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${product-jobs.resume-interval-ms:15000}")
+    public void resumePending() {
+        for (Long jobId : jobRepository.findResumable(Instant.now(), resumeBatchSize)) {
+            if (!dispatch(jobId)) {
+                break; // Workers are saturated; the rest wait for the next round
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product-jobs.cleanup-interval-ms:3600000}")
+    public void deleteFinished() {
+        int deleted = jobRepository.deleteFinishedBefore(Instant.now().minus(Duration.ofHours(retentionHours)));
+        if (deleted > 0) {
+            log.info("Deleted {} finished product jobs", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs roll back and are resumed once their lease expires
+        workers.shutdownNow();
+    }
+
+    private boolean dispatch(Long jobId) {
+        try {
+            workers.execute(() -> process(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Worker queue full, product job {} left for the resume poller", jobId);
+            return false;
+        }
+    }
+
+    private void process(Long jobId) {
+        Instant now = Instant.now();
+        if (jobRepository.claim(jobId, now, now.plus(Duration.ofSeconds(leaseSeconds))) == 0) {
+            return; // Finished, or being worked on elsewhere
+        }
+        ProductCreationJob job = jobRepository.findCurrent(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        int attempt = job.getAttempts();
+
+        try {
+            ProductRequest request = objectMapper.readValue(job.getRequestPayload(), ProductRequest.class);
+            List<MultipartFile> files = stagingArea.open(job.getStagingKey(),
+                    objectMapper.readValue(job.getStagedFiles(), MANIFEST_TYPE));
+
+            Long productId = transactionTemplate.execute(status -> {
+                AdminProductResponse created = productService.createProduct(request, files);
+                if (jobRepository.markSucceeded(jobId, attempt, created.getId(), Instant.now()) == 0) {
+                    throw new LeaseLostException();
+                }
+                return created.getId();
+            });
+            stagingArea.delete(job.getStagingKey());
+            log.info("Product job {} created product {} (attempt {})", jobId, productId, attempt);
+        } catch (LeaseLostException e) {
+            // Ran past its lease and was claimed again; the other attempt creates the product. Raise
+            // product-jobs.lease-seconds if this happens for jobs that were merely slow
+            log.warn("Product job {} attempt {} lost its {}s lease after {}s and was rolled back; images it stored are queued for deletion",
+                    jobId, attempt, leaseSeconds, Duration.between(now, Instant.now()).toSeconds());
+        } catch (Exception e) {
+            fail(job, attempt, e);
+        }
+    }
+
+    private void fail(ProductCreationJob job, int attempt, Exception e) {
+        String error = truncate(rootMessage(e));
+        if (isPermanent(e) || attempt >= maxAttempts) {
+            if (jobRepository.markFailed(job.getId(), attempt, error, Instant.now()) > 0) {
+                stagingArea.delete(job.getStagingKey());
+            }
+            log.warn("Product job {} failed after {} attempt(s): {}", job.getId(), attempt, error);
+            return;
+        }
+        // initialBackoff * 2^(attempt - 1), capped; the shift is bounded to avoid overflow
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        jobRepository.requeue(job.getId(), attempt, error, Instant.now().plus(Duration.ofMillis(backoffMs)));
+        log.warn("Product job {} attempt {} failed, retrying in {} ms: {}", job.getId(), attempt, backoffMs, error);
+    }
+
+    /**
+     * Errors caused by the request itself (validation, unknown category, duplicate SKU); retrying cannot help.
+     * Image validation failures arrive wrapped by the upload service, hence the walk down the causes.
+     */
+    private static boolean isPermanent(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof IllegalArgumentException || t instanceof ResourceNotFoundException
+                    || t instanceof DuplicateResourceException || t instanceof DataIntegrityViolationException
+                    || t instanceof JsonProcessingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private ProductCreationJobResponse toResponse(ProductCreationJob job) {
+        ProductCreationJobResponse response = new ProductCreationJobResponse();
+        response.setJobId(job.getId());
+        response.setStatus(job.getStatus());
+        response.setProductId(job.getProductId());
+        response.setError(job.getLastError());
+        response.setAttempts(job.getAttempts());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        return response;
+    }
+
+    /**
+     * Another worker took the job over; thrown inside the transaction so the product is not created twice
+     */
+    private static class LeaseLostException extends RuntimeException {
+        LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
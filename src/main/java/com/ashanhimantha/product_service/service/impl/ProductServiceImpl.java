@@ -1,22 +1,42 @@
 package com.ashanhimantha.product_service.service.impl;
 
+import com.ashanhimantha.product_service.dto.request.PresignImagesRequest;
 import com.ashanhimantha.product_service.dto.request.ProductPatchRequest;
 import com.ashanhimantha.product_service.dto.request.ProductRequest;
 import com.ashanhimantha.product_service.dto.request.ProductUpdateRequest;
 import com.ashanhimantha.product_service.dto.request.VariantRequest;
 import com.ashanhimantha.product_service.dto.response.AdminProductResponse;
+import com.ashanhimantha.product_service.dto.response.AdminProductSummaryResponse;
+import com.ashanhimantha.product_service.dto.response.ChangeFeedResponse;
+import com.ashanhimantha.product_service.dto.response.PresignedUploadResponse;
+import com.ashanhimantha.product_service.dto.response.ProductChangeResponse;
 import com.ashanhimantha.product_service.dto.response.ProductResponse;
 import com.ashanhimantha.product_service.dto.response.PublicProductResponse;
+import com.ashanhimantha.product_service.dto.response.PublicProductSummaryResponse;
 import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.OutboxEvent;
 import com.ashanhimantha.product_service.entity.Product;
+import com.ashanhimantha.product_service.entity.ProductImage;
 import com.ashanhimantha.product_service.entity.ProductVariant;
+import com.ashanhimantha.product_service.entity.enums.AggregateType;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
 import com.ashanhimantha.product_service.entity.enums.Status;
+import com.ashanhimantha.product_service.exception.ChangeTokenExpiredException;
 import com.ashanhimantha.product_service.exception.ResourceNotFoundException;
 import com.ashanhimantha.product_service.mapper.ProductMapper;
+import com.ashanhimantha.product_service.repository.OutboxEventRepository;
 import com.ashanhimantha.product_service.repository.ProductRepository;
 import com.ashanhimantha.product_service.service.CategoryService;
 import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.service.OutboxService;
 import com.ashanhimantha.product_service.service.ProductService;
+import com.ashanhimantha.product_service.service.SkuGenerator;
+import com.ashanhimantha.product_service.storage.UploadedImage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,8 +44,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,9 +63,15 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryService categoryService;
     private final ProductMapper productMapper;
     private final ImageUploadService imageUploadService;
+    private final OutboxService outboxService;
+    private final SkuGenerator skuGenerator;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     private static final int MAX_IMAGES = 6;
     private static final String PRODUCT_FOLDER = "products/";
+    private static final int EXPORT_CHUNK_SIZE = 500; // Matches the fetch size of streamByStatus
 
     @Override
     @Transactional
@@ -67,45 +101,34 @@ public class ProductServiceImpl implements ProductService {
         product.setStatus(productRequest.getStatus() != null ? productRequest.getStatus() : Status.ACTIVE);
         product.setCategory(category);
 
-        // 4. Save the product FIRST to get an ID (without variants yet)
-        Product savedProduct = productRepository.save(product);
-
-        // 5. If product has variants (colors/sizes), create them and link to saved product
+        // 4. If product has variants (colors/sizes), create them and link them to the product
         if (productRequest.hasVariants()) {
             for (VariantRequest variantRequest : productRequest.getVariants()) {
                 ProductVariant variant = productMapper.toProductVariant(variantRequest);
-                variant.setProduct(savedProduct); // Link variant to the product
+                variant.setProduct(product); // Link variant to the product
 
                 // Generate SKU if not provided
                 if (variant.getSku() == null || variant.getSku().isBlank()) {
-                    variant.setSku(generateSKU(savedProduct, variant));
+                    variant.setSku(skuGenerator.generate(product.getName(), variant.getColor(), variant.getSize()));
                 }
-                savedProduct.getVariants().add(variant);
+                product.getVariants().add(variant);
             }
-            // Save again to persist variants
-            savedProduct = productRepository.save(savedProduct);
         }
 
-        // 6. Upload images and return the response
-        return uploadProductImages(savedProduct.getId(), validFiles);
-    }
+        // 5. Save once; variants cascade and their inserts are JDBC-batched at flush
+        product.recalculateVariantAggregates();
+        Product savedProduct = productRepository.save(product);
 
-    private String generateSKU(Product product, ProductVariant variant) {
-        String productName = product.getName().replaceAll("\\s+", "").toUpperCase();
-        if (productName.length() > 4) {
-            productName = productName.substring(0, 4);
-        }
-        String color = "NONE";
-        if (variant.getColor() != null && !variant.getColor().isBlank()) {
-            color = variant.getColor().replaceAll("[^a-zA-Z]", "").toUpperCase();
-            if (color.length() > 3) {
-                color = color.substring(0, 3);
+        // 6. Upload images and return the response
+        Product withImages = attachImages(savedProduct, validFiles);
+        outboxService.recordProductChange(withImages, ChangeEventType.PRODUCT_CREATED);
+        for (ProductVariant variant : withImages.getVariants()) {
+            outboxService.recordVariantChange(variant, ChangeEventType.VARIANT_CREATED);
+            if (variant.isLowStock()) {
+                outboxService.recordVariantChange(variant, ChangeEventType.VARIANT_LOW_STOCK); // Created at or below its threshold
             }
         }
-        String size = variant.getSize().toUpperCase();
-
-        // Use a timestamp component to reduce collisions
-        return String.format("%s-%s-%s-%d", productName, color, size, System.currentTimeMillis() % 10000);
+        return productMapper.toAdminProductResponse(withImages);
     }
 
     @Override
@@ -139,9 +162,10 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PublicProductResponse> getAllActiveProductsForPublic(Pageable pageable) {
+    public Page<PublicProductSummaryResponse> getAllActiveProductsForPublic(Pageable pageable) {
+        // Summaries read the aggregate columns, so list pages never load variants
         Page<Product> productPage = productRepository.findByStatus(Status.ACTIVE, pageable);
-        return productPage.map(productMapper::toPublicProductResponse);
+        return productPage.map(productMapper::toPublicProductSummaryResponse);
     }
 
     @Override
@@ -154,6 +178,108 @@ public class ProductServiceImpl implements ProductService {
         return productMapper.toPublicProductResponse(product);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportActiveProductsForPublic(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        List<Product> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Product> products = productRepository.streamByStatus(Status.ACTIVE)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    // Mapping a whole chunk lets @BatchSize load its variants and images together
+                    for (Product product : chunk) {
+                        writer.writeValue(generator, productMapper.toPublicProductResponse(product));
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                    chunk.clear();
+                    // Detach the written chunk so heap stays flat regardless of catalog size
+                    entityManager.clear();
+                }
+            }
+        }
+        generator.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse getProductChanges(String sinceToken, int limit) {
+        long[] since = parseChangeToken(sinceToken);
+        long sinceTxid = since[0];
+        long sinceId = since[1];
+
+        Long oldestRetained = outboxEventRepository.findMinTxid();
+        if (sinceId > 0 && oldestRetained != null && sinceTxid < oldestRetained) {
+            throw new ChangeTokenExpiredException("Change token " + sinceToken + " is older than the retained change history. Perform a full resync.");
+        }
+
+        List<OutboxEvent> events = outboxEventRepository.findSettledAfter(
+                AggregateType.PRODUCT.name(), sinceTxid, sinceId, limit);
+
+        // Collapse to the latest change per product, ordered by that change's position in the feed
+        Map<Long, Long> latestSequenceByProduct = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            latestSequenceByProduct.remove(event.getAggregateId());
+            latestSequenceByProduct.put(event.getAggregateId(), event.getId());
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(latestSequenceByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<ProductChangeResponse> changes = new ArrayList<>(latestSequenceByProduct.size());
+        latestSequenceByProduct.forEach((productId, sequence) -> {
+            ProductChangeResponse change = new ProductChangeResponse();
+            change.setSequence(sequence);
+            change.setProductId(productId);
+            Product product = products.get(productId);
+            if (product != null && product.getStatus() == Status.ACTIVE) {
+                change.setOperation(ProductChangeResponse.Operation.UPSERT);
+                change.setProduct(productMapper.toPublicProductResponse(product));
+            } else {
+                change.setOperation(ProductChangeResponse.Operation.TOMBSTONE);
+            }
+            changes.add(change);
+        });
+
+        ChangeFeedResponse response = new ChangeFeedResponse();
+        response.setChanges(changes);
+        if (events.isEmpty()) {
+            response.setNextToken(sinceTxid + ":" + sinceId);
+        } else {
+            OutboxEvent last = events.get(events.size() - 1);
+            response.setNextToken(last.getTxid() + ":" + last.getId());
+        }
+        response.setHasMore(events.size() == limit);
+        return response;
+    }
+
+    /**
+     * Tokens are "txid:id". A bare number is a token from before the transaction cursor: it is read as
+     * an event id within the pre-existing history (txid 0), so nothing written since is skipped.
+     */
+    private long[] parseChangeToken(String sinceToken) {
+        if (sinceToken == null || sinceToken.isBlank()) {
+            return new long[]{0L, 0L};
+        }
+        try {
+            String token = sinceToken.trim();
+            int separator = token.indexOf(':');
+            long txid = separator < 0 ? 0L : Long.parseLong(token.substring(0, separator));
+            long id = Long.parseLong(separator < 0 ? token : token.substring(separator + 1));
+            if (txid < 0 || id < 0) {
+                throw new NumberFormatException();
+            }
+            return new long[]{txid, id};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid change token: " + sinceToken);
+        }
+    }
+
     @Override
     @Transactional
     public ProductResponse updateProduct(Long productId, ProductUpdateRequest productUpdateRequest, List<MultipartFile> files) {
@@ -173,7 +299,7 @@ public class ProductServiceImpl implements ProductService {
         if (files != null && !files.isEmpty()) {
             List<MultipartFile> validFiles = files.stream().filter(f -> f != null && !f.isEmpty()).collect(Collectors.toList());
             if (!validFiles.isEmpty()) {
-                int currentImageCount = existingProduct.getImageUrls().size();
+                int currentImageCount = existingProduct.getImages().size();
                 int newImageCount = validFiles.size();
                 if (currentImageCount + newImageCount > MAX_IMAGES) {
                     throw new IllegalArgumentException(
@@ -181,13 +307,11 @@ public class ProductServiceImpl implements ProductService {
                                     currentImageCount + " images. Maximum allowed is " + MAX_IMAGES + " images.");
                 }
 
-                uploadProductImages(productId, validFiles);
-                Product reloaded = productRepository.findById(productId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-                return productMapper.toProductResponse(reloaded);
+                updatedProduct = attachImages(updatedProduct, validFiles);
             }
         }
 
+        outboxService.recordProductChange(updatedProduct, ChangeEventType.PRODUCT_UPDATED);
         return productMapper.toProductResponse(updatedProduct);
     }
 
@@ -214,7 +338,7 @@ public class ProductServiceImpl implements ProductService {
         if (files != null && !files.isEmpty()) {
             List<MultipartFile> validFiles = files.stream().filter(f -> f != null && !f.isEmpty()).collect(Collectors.toList());
             if (!validFiles.isEmpty()) {
-                int currentImageCount = existingProduct.getImageUrls().size();
+                int currentImageCount = existingProduct.getImages().size();
                 int newImageCount = validFiles.size();
                 if (currentImageCount + newImageCount > MAX_IMAGES) {
                     throw new IllegalArgumentException(
@@ -222,30 +346,30 @@ public class ProductServiceImpl implements ProductService {
                                     currentImageCount + " images. Maximum allowed is " + MAX_IMAGES + " images.");
                 }
 
-                uploadProductImages(productId, validFiles);
-                Product reloaded = productRepository.findById(productId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-                return productMapper.toProductResponse(reloaded);
+                updatedProduct = attachImages(updatedProduct, validFiles);
             }
         }
 
+        outboxService.recordProductChange(updatedProduct, ChangeEventType.PRODUCT_UPDATED);
         return productMapper.toProductResponse(updatedProduct);
     }
 
     @Override
     @Transactional
     public void deleteProduct(Long productId) {
-        if (!productRepository.existsById(productId)) {
-            throw new ResourceNotFoundException("Product not found with id: " + productId);
-        }
-        productRepository.deleteById(productId);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        // Queued in this transaction, removed from S3 by the deletion worker after commit
+        imageUploadService.deleteImages(product.getImageUrls());
+        productRepository.delete(product);
+        outboxService.recordDeletion(ChangeEventType.PRODUCT_DELETED, productId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<AdminProductResponse> getAllProductsForAdmin(Pageable pageable) {
+    public Page<AdminProductSummaryResponse> getAllProductsForAdmin(Pageable pageable) {
         Page<Product> productPage = productRepository.findAll(pageable);
-        return productPage.map(productMapper::toAdminProductResponse);
+        return productPage.map(productMapper::toAdminProductSummaryResponse);
     }
 
     @Override
@@ -264,6 +388,7 @@ public class ProductServiceImpl implements ProductService {
 
         product.setStatus(newStatus);
         Product updatedProduct = productRepository.save(product);
+        outboxService.recordProductChange(updatedProduct, ChangeEventType.PRODUCT_UPDATED);
         return productMapper.toAdminProductResponse(updatedProduct);
     }
 
@@ -282,7 +407,7 @@ public class ProductServiceImpl implements ProductService {
             throw new IllegalArgumentException("No valid files provided for upload");
         }
 
-        int currentImageCount = product.getImageUrls().size();
+        int currentImageCount = product.getImages().size();
         int newImageCount = validFiles.size();
 
         if (currentImageCount + newImageCount > MAX_IMAGES) {
@@ -291,16 +416,82 @@ public class ProductServiceImpl implements ProductService {
                             currentImageCount + " images. Maximum allowed is " + MAX_IMAGES + " images.");
         }
 
+        Product saved = attachImages(product, validFiles);
+        outboxService.recordProductChange(saved, ChangeEventType.PRODUCT_UPDATED);
+        return productMapper.toAdminProductResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PresignedUploadResponse> presignProductImageUploads(Long productId, PresignImagesRequest request) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        // Checked again on confirm; failing early avoids uploads that could never be attached
+        checkImageLimit(product, request.getImages().size());
+
+        String folder = PRODUCT_FOLDER + productId + "/";
+        return request.getImages().stream()
+                .map(image -> imageUploadService.presignUpload(folder, "product", image.getContentType(), image.getContentLength()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public AdminProductResponse confirmProductImageUploads(Long productId, List<String> objectKeys) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        String folder = PRODUCT_FOLDER + productId + "/";
+        List<String> keys = objectKeys.stream().distinct().collect(Collectors.toList());
+        for (String key : keys) {
+            // Only keys issued for this product; presigned keys never contain path segments below the folder
+            if (key == null || !key.startsWith(folder) || key.indexOf('/', folder.length()) >= 0) {
+                throw new IllegalArgumentException("Object key does not belong to product " + productId + ": " + key);
+            }
+        }
+
+        List<String> existingUrls = product.getImageUrls();
+        List<ProductImage> newImages = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            // HeadObject for existence, type and size, then the header bytes for the real format and dimensions
+            UploadedImage image = imageUploadService.confirmUpload(key);
+            if (!existingUrls.contains(image.getUrl())) {
+                newImages.add(new ProductImage(image.getUrl(), image.getWidth(), image.getHeight()));
+            }
+        }
+        checkImageLimit(product, newImages.size());
+
+        product.getImages().addAll(newImages);
+        Product saved = productRepository.save(product);
+        outboxService.recordProductChange(saved, ChangeEventType.PRODUCT_UPDATED);
+        return productMapper.toAdminProductResponse(saved);
+    }
+
+    private void checkImageLimit(Product product, int newImageCount) {
+        int currentImageCount = product.getImages().size();
+        if (currentImageCount + newImageCount > MAX_IMAGES) {
+            throw new IllegalArgumentException(
+                    "Cannot add " + newImageCount + " images. Product already has " +
+                            currentImageCount + " images. Maximum allowed is " + MAX_IMAGES + " images.");
+        }
+    }
+
+    /**
+     * Upload already validated image files and append them, with their dimensions, to the product
+     */
+    private Product attachImages(Product product, List<MultipartFile> validFiles) {
         // Use centralized ImageUploadService
-        List<String> uploadedUrls = imageUploadService.uploadImages(
+        List<UploadedImage> uploadedImages = imageUploadService.uploadImages(
                 validFiles,
-                PRODUCT_FOLDER + productId + "/",
+                PRODUCT_FOLDER + product.getId() + "/",
                 "product"
         );
 
-        product.getImageUrls().addAll(uploadedUrls);
-        Product saved = productRepository.save(product);
-        return productMapper.toAdminProductResponse(saved);
+        for (UploadedImage image : uploadedImages) {
+            product.getImages().add(new ProductImage(image.getUrl(), image.getWidth(), image.getHeight()));
+        }
+        return productRepository.save(product);
     }
 
     private void validateProductRequest(ProductRequest request) {
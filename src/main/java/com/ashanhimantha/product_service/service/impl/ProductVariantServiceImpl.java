@@ -1,22 +1,35 @@
 package com.ashanhimantha.product_service.service.impl;
 
+import com.ashanhimantha.product_service.dto.request.BulkVariantRequest;
 import com.ashanhimantha.product_service.dto.request.StockUpdateRequest;
 import com.ashanhimantha.product_service.dto.request.VariantRequest;
 import com.ashanhimantha.product_service.dto.request.VariantUpdateRequest;
+import com.ashanhimantha.product_service.dto.response.BulkVariantResponse;
+import com.ashanhimantha.product_service.dto.response.BulkVariantRowError;
 import com.ashanhimantha.product_service.dto.response.ProductVariantResponse;
+import com.ashanhimantha.product_service.entity.CategoryType;
 import com.ashanhimantha.product_service.entity.Product;
 import com.ashanhimantha.product_service.entity.ProductVariant;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
 import com.ashanhimantha.product_service.exception.ResourceNotFoundException;
 import com.ashanhimantha.product_service.repository.ProductRepository;
 import com.ashanhimantha.product_service.repository.ProductVariantRepository;
+import com.ashanhimantha.product_service.service.OutboxService;
 import com.ashanhimantha.product_service.service.ProductVariantService;
+import com.ashanhimantha.product_service.service.SkuGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,8 +37,12 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductVariantServiceImpl implements ProductVariantService {
 
+    private static final int MAX_BULK_VARIANTS = 200;
+
     private final ProductVariantRepository productVariantRepository;
     private final ProductRepository productRepository;
+    private final OutboxService outboxService;
+    private final SkuGenerator skuGenerator;
 
     @Override
     public ProductVariantResponse getVariantById(Long variantId) {
@@ -52,6 +69,7 @@ public class ProductVariantServiceImpl implements ProductVariantService {
         ProductVariant variant = productVariantRepository.findById(variantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product variant not found with id: " + variantId));
 
+        boolean wasLowStock = variant.isLowStock();
         boolean updated = false;
         StringBuilder updateLog = new StringBuilder("Updated fields for variant ID " + variantId + ": ");
 
@@ -84,11 +102,24 @@ public class ProductVariantServiceImpl implements ProductVariantService {
             updated = true;
         }
 
+        // Update reorder threshold if provided
+        if (request.getReorderThreshold() != null) {
+            variant.setReorderThreshold(request.getReorderThreshold());
+            updateLog.append(String.format("reorderThreshold(%d) ", request.getReorderThreshold()));
+            updated = true;
+        }
+
         if (!updated) {
             throw new IllegalArgumentException("At least one field must be provided for update");
         }
 
         ProductVariant savedVariant = productVariantRepository.save(variant);
+        refreshProductAggregates(savedVariant.getProduct().getId());
+        outboxService.recordVariantChange(savedVariant, ChangeEventType.VARIANT_UPDATED);
+        if (!wasLowStock && savedVariant.isLowStock()) {
+            // Pushed once per downward crossing so replenishment jobs don't poll for low stock
+            recordLowStock(savedVariant);
+        }
 
         log.info(updateLog.toString());
 
@@ -98,7 +129,9 @@ public class ProductVariantServiceImpl implements ProductVariantService {
     @Override
     @Transactional
     public ProductVariantResponse createVariant(Long productId, VariantRequest request) {
-        // Check if product exists
+        // Lock before the insert: its foreign key check takes FOR KEY SHARE on the product row, and two
+        // creates upgrading from KEY SHARE to the aggregate refresh's FOR UPDATE would deadlock
+        productRepository.lockById(productId);
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
 
@@ -110,17 +143,136 @@ public class ProductVariantServiceImpl implements ProductVariantService {
         variant.setUnitCost(request.getUnitCost());
         variant.setSellingPrice(request.getSellingPrice());
         variant.setQuantity(request.getQuantity());
-        variant.setSku(request.getSku());
+        variant.setReorderThreshold(request.getReorderThreshold() != null ? request.getReorderThreshold() : 0);
+        variant.setSku(request.getSku() != null && !request.getSku().isBlank()
+                ? request.getSku()
+                : skuGenerator.generate(product.getName(), request.getColor(), request.getSize()));
         variant.setIsActive(true);
 
         try {
-            ProductVariant saved = productVariantRepository.save(variant);
+            ProductVariant saved = productVariantRepository.saveAndFlush(variant);
+            productRepository.refreshVariantAggregates(productId); // Row already locked above
+            outboxService.recordVariantChange(saved, ChangeEventType.VARIANT_CREATED);
+            if (saved.isLowStock()) {
+                recordLowStock(saved); // Created at or below its threshold counts as a crossing
+            }
             log.info("New variant created for product ID {}: {} - {}", productId,
                     saved.getColor() != null ? saved.getColor() : "No Color", saved.getSize());
             return mapToResponse(saved);
         } catch (DataIntegrityViolationException e) {
-            throw new IllegalStateException("A variant with the same color and size already exists for this product.");
+            throw new IllegalStateException("A variant with the same color and size, or the same SKU, already exists.");
+        }
+    }
+
+    @Override
+    @Transactional
+    public BulkVariantResponse createVariants(Long productId, BulkVariantRequest request) {
+        List<String> colors = request.hasColors() ? request.getColors() : Arrays.asList((String) null);
+        int requested = colors.size() * request.getSizes().size();
+        if (requested > MAX_BULK_VARIANTS) {
+            throw new IllegalArgumentException("Cannot create " + requested + " variants in one call. Maximum allowed is " + MAX_BULK_VARIANTS + ".");
+        }
+        if (request.getSellingPrice() < request.getUnitCost()) {
+            throw new IllegalArgumentException("Selling price should not be less than unit cost");
+        }
+
+        // Lock first: concurrent variant writes of this product wait, so the duplicate check below stays valid
+        // (a null color never violates the unique constraint, so the constraint alone would not catch those)
+        productRepository.lockById(productId);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        // A category type without size options places no restriction on sizes, like having no category type
+        CategoryType categoryType = product.getCategory().getCategoryType();
+        Set<String> allowedSizes = null;
+        if (categoryType != null) {
+            Set<String> options = categoryType.getSizeOptionsAsList().stream()
+                    .map(String::trim)
+                    .filter(option -> !option.isEmpty())
+                    .collect(Collectors.toSet());
+            allowedSizes = options.isEmpty() ? null : options;
+        }
+
+        Set<List<String>> taken = new HashSet<>();
+        for (Object[] pair : productVariantRepository.findColorSizePairs(productId)) {
+            taken.add(Arrays.asList((String) pair[0], (String) pair[1]));
+        }
+
+        List<ProductVariant> variants = new ArrayList<>(requested);
+        List<BulkVariantRowError> errors = new ArrayList<>();
+        for (String rawColor : colors) {
+            String color = rawColor != null ? rawColor.trim() : null;
+            for (String rawSize : request.getSizes()) {
+                String size = rawSize.trim();
+                if (allowedSizes != null && !allowedSizes.contains(size)) {
+                    errors.add(new BulkVariantRowError(color, size,
+                            "Size is not an option of category type '" + categoryType.getName() + "'"));
+                } else if (!taken.add(Arrays.asList(color, size))) {
+                    errors.add(new BulkVariantRowError(color, size, "A variant with this color and size already exists or is listed twice"));
+                } else {
+                    variants.add(newVariant(product, color, size, request));
+                }
+            }
+        }
+
+        List<ProductVariantResponse> created = new ArrayList<>(variants.size());
+        if (!variants.isEmpty()) {
+            // Sequence ids and JDBC batching: one multi-row insert per batch of up to hibernate.jdbc.batch_size rows
+            List<ProductVariant> saved = productVariantRepository.saveAll(variants);
+            productRepository.refreshVariantAggregates(productId); // Flushes the inserts first
+            for (ProductVariant variant : saved) {
+                outboxService.recordVariantChange(variant, ChangeEventType.VARIANT_CREATED);
+                if (variant.isLowStock()) {
+                    recordLowStock(variant);
+                }
+                created.add(mapToResponse(variant));
+            }
         }
+        log.info("Bulk variant creation for product ID {}: {} created, {} rejected", productId, created.size(), errors.size());
+
+        BulkVariantResponse response = new BulkVariantResponse();
+        response.setRequested(requested);
+        response.setCreated(created);
+        response.setErrors(errors);
+        return response;
+    }
+
+    private ProductVariant newVariant(Product product, String color, String size, BulkVariantRequest request) {
+        ProductVariant variant = new ProductVariant();
+        variant.setProduct(product);
+        variant.setColor(color);
+        variant.setSize(size);
+        variant.setUnitCost(request.getUnitCost());
+        variant.setSellingPrice(request.getSellingPrice());
+        variant.setQuantity(request.getQuantity());
+        variant.setReorderThreshold(request.getReorderThreshold() != null ? request.getReorderThreshold() : 0);
+        variant.setSku(skuGenerator.generate(product.getName(), color, size));
+        variant.setIsActive(true);
+        return variant;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductVariantResponse> getLowStockVariants(Pageable pageable) {
+        return productVariantRepository.findLowStock(pageable).map(this::mapToResponse);
+    }
+
+    /**
+     * Same condition as ProductVariantRepository.findLowStock (inactive variants are never low stock)
+     */
+    private void recordLowStock(ProductVariant variant) {
+        outboxService.recordVariantChange(variant, ChangeEventType.VARIANT_LOW_STOCK);
+        log.info("Variant ID {} is low on stock: {} <= {}", variant.getId(),
+                variant.getQuantity(), variant.getReorderThreshold());
+    }
+
+    /**
+     * Recompute the product's stock and price aggregates after a variant write (same transaction).
+     * The product row is locked first so concurrent variant writes of one product refresh in commit order.
+     */
+    private void refreshProductAggregates(Long productId) {
+        productRepository.lockById(productId);
+        productRepository.refreshVariantAggregates(productId);
     }
 
     /**
@@ -136,6 +288,7 @@ public class ProductVariantServiceImpl implements ProductVariantService {
         response.setUnitCost(variant.getUnitCost());
         response.setSellingPrice(variant.getSellingPrice());
         response.setQuantity(variant.getQuantity());
+        response.setReorderThreshold(variant.getReorderThreshold());
         response.setSku(variant.getSku());
         response.setIsActive(variant.getIsActive());
         response.setVariantName(variant.getVariantName());
@@ -0,0 +1,96 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.service.SkuGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hi/lo SKU generator. Each node reserves a block of BLOCK_SIZE numbers with a single
+ * nextval() on a database sequence (INCREMENT BY BLOCK_SIZE) and hands them out from memory,
+ * so numbers never collide across nodes or threads and only one in BLOCK_SIZE SKUs costs a round trip.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SkuGeneratorImpl implements SkuGenerator {
+
+    private static final String SKU_SEQUENCE = "product_variant_sku_seq"; // Created by Flyway (V1)
+    private static final int BLOCK_SIZE = 100; // Must match INCREMENT BY of the sequence
+    private static final int NAME_CHARS = 4;
+    private static final int COLOR_CHARS = 3;
+    private static final int SIZE_CHARS = 10;
+    private static final char[] BASE36 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private long nextValue;  // guarded by this
+    private long blockLimit; // guarded by this
+
+    @Override
+    public String generate(String productName, String color, String size) {
+        long value = nextValue();
+
+        StringBuilder sku = new StringBuilder(32);
+        if (appendAlphanumeric(sku, productName, NAME_CHARS, false) == 0) {
+            sku.append('P');
+        }
+        sku.append('-');
+        if (appendAlphanumeric(sku, color, COLOR_CHARS, true) == 0) {
+            sku.append("NONE");
+        }
+        sku.append('-');
+        if (appendAlphanumeric(sku, size, SIZE_CHARS, false) == 0) {
+            sku.append('X');
+        }
+        sku.append('-');
+        appendBase36(sku, value);
+        return sku.toString();
+    }
+
+    private synchronized long nextValue() {
+        if (nextValue >= blockLimit) {
+            Long hi = jdbcTemplate.queryForObject("SELECT nextval('" + SKU_SEQUENCE + "')", Long.class);
+            if (hi == null) {
+                throw new IllegalStateException("SKU sequence returned no value");
+            }
+            nextValue = hi;
+            blockLimit = hi + BLOCK_SIZE;
+            log.debug("Reserved SKU block [{}, {})", nextValue, blockLimit);
+        }
+        return nextValue++;
+    }
+
+    /**
+     * Append up to maxChars upper-cased ASCII letters (and digits unless lettersOnly) from value.
+     * Returns the number of characters appended.
+     */
+    private static int appendAlphanumeric(StringBuilder target, String value, int maxChars, boolean lettersOnly) {
+        if (value == null) {
+            return 0;
+        }
+        int appended = 0;
+        for (int i = 0; i < value.length() && appended < maxChars; i++) {
+            char c = value.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                target.append((char) (c - ('a' - 'A')));
+                appended++;
+            } else if ((c >= 'A' && c <= 'Z') || (!lettersOnly && c >= '0' && c <= '9')) {
+                target.append(c);
+                appended++;
+            }
+        }
+        return appended;
+    }
+
+    private static void appendBase36(StringBuilder target, long value) {
+        char[] digits = new char[13];
+        int position = digits.length;
+        do {
+            digits[--position] = BASE36[(int) (value % 36)];
+            value /= 36;
+        } while (value > 0);
+        target.append(digits, position, digits.length - position);
+    }
+}
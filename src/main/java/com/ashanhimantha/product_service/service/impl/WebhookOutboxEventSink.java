@@ -0,0 +1,39 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.ChangeEventMessage;
+import com.ashanhimantha.product_service.service.OutboxEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * POSTs each batch of change events as a JSON array to a webhook.
+ * Any non-2xx response fails the batch so the relay retries it.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "webhook")
+public class WebhookOutboxEventSink implements OutboxEventSink {
+
+    private final RestClient restClient;
+    private final String webhookUrl;
+
+    public WebhookOutboxEventSink(RestClient.Builder restClientBuilder,
+                                  @Value("${outbox.sink.webhook.url}") String webhookUrl) {
+        this.restClient = restClientBuilder.build();
+        this.webhookUrl = webhookUrl;
+    }
+
+    @Override
+    public void publish(List<ChangeEventMessage> events) {
+        restClient.post()
+                .uri(webhookUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class BlobInfo {
+    String key;
+    long size;
+    String contentType;
+    Instant lastModified;
+}
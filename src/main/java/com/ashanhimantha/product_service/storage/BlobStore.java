@@ -0,0 +1,45 @@
+package com.ashanhimantha.product_service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Object storage for uploaded images. The backend is chosen with storage.type:
+ * "s3" (S3BlobStore, the default) or "local" (LocalBlobStore, served by MediaController).
+ */
+public interface BlobStore {
+
+    void put(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    Optional<BlobInfo> stat(String key);
+
+    /**
+     * Open an object for reading. Closing the stream before the end abandons the rest of the
+     * object, so this is also the way to read just a header.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Delete the given keys; missing keys count as deleted.
+     * Returns the keys that could not be deleted, with their error messages.
+     */
+    Map<String, String> deleteAll(Collection<String> keys);
+
+    /**
+     * Lazily list the objects under a prefix. The stream must be closed.
+     */
+    Stream<BlobInfo> list(String prefix);
+
+    String publicUrl(String key);
+
+    /**
+     * Presign a direct client upload of exactly contentLength bytes of contentType.
+     * Throws IllegalStateException when the backend does not support direct uploads.
+     */
+    PresignedUpload presignPut(String key, String contentType, long contentLength, Duration expiry);
+}
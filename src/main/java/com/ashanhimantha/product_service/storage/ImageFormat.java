@@ -0,0 +1,34 @@
+package com.ashanhimantha.product_service.storage;
+
+/**
+ * Image formats accepted for upload, identified by their magic bytes (see ImageInspector)
+ */
+public enum ImageFormat {
+    JPEG("image/jpeg", ".jpg"),
+    PNG("image/png", ".png"),
+    WEBP("image/webp", ".webp");
+
+    private final String contentType;
+    private final String extension;
+
+    ImageFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Whether a client-declared content type names this format ("image/jpg" is accepted for JPEG)
+     */
+    public boolean matchesContentType(String declaredContentType) {
+        return contentType.equalsIgnoreCase(declaredContentType)
+                || (this == JPEG && "image/jpg".equalsIgnoreCase(declaredContentType));
+    }
+}
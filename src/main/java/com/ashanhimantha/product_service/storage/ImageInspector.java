@@ -0,0 +1,210 @@
+package com.ashanhimantha.product_service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Identifies JPEG, PNG and WebP images by their magic bytes and reads the dimensions from the
+ * headers only, without decoding pixels. Reads are sequential and stop right after the header
+ * (JPEG segments before the frame header, such as EXIF, are skipped rather than buffered), so
+ * the cost is independent of the image size and the only allocation is a small read buffer.
+ */
+@Component
+public class ImageInspector {
+
+    private static final int READ_BUFFER_SIZE = 512;
+
+    @Value("${storage.image.max-dimension:8000}")
+    private int maxDimension;
+
+    @Value("${storage.image.max-pixels:40000000}")
+    private long maxPixels;
+
+    /**
+     * Sniff the format, check it against the declared content type and enforce the dimension limits.
+     * Consumes only the header bytes of the stream.
+     */
+    public ImageMetadata inspect(InputStream input, String declaredContentType) throws IOException {
+        ImageMetadata metadata;
+        try {
+            metadata = readMetadata(input);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Image header is truncated");
+        }
+
+        if (declaredContentType != null && !metadata.getFormat().matchesContentType(declaredContentType)) {
+            throw new IllegalArgumentException("File content is " + metadata.getFormat().getContentType()
+                    + " but was declared as " + declaredContentType);
+        }
+        if (metadata.getWidth() <= 0 || metadata.getHeight() <= 0) {
+            throw new IllegalArgumentException("Image has invalid dimensions");
+        }
+        if (metadata.getWidth() > maxDimension || metadata.getHeight() > maxDimension
+                || (long) metadata.getWidth() * metadata.getHeight() > maxPixels) {
+            throw new IllegalArgumentException(String.format(
+                    "Image dimensions %dx%d exceed the maximum of %d pixels per side or %d pixels in total",
+                    metadata.getWidth(), metadata.getHeight(), maxDimension, maxPixels));
+        }
+        return metadata;
+    }
+
+    private ImageMetadata readMetadata(InputStream input) throws IOException {
+        InputStream in = new BufferedInputStream(input, READ_BUFFER_SIZE);
+        int first = in.read();
+        int second = in.read();
+        if (first == 0xFF && second == 0xD8) {
+            return readJpeg(in);
+        }
+        if (first == 0x89 && second == 'P') {
+            return readPng(in);
+        }
+        if (first == 'R' && second == 'I') {
+            return readWebp(in);
+        }
+        throw new IllegalArgumentException("Only JPEG, PNG, and WebP images are allowed");
+    }
+
+    /**
+     * Walk the marker segments up to the first start-of-frame (SOFn) header
+     */
+    private ImageMetadata readJpeg(InputStream in) throws IOException {
+        while (true) {
+            if (readU8(in) != 0xFF) {
+                throw invalid("JPEG");
+            }
+            int marker;
+            do {
+                marker = readU8(in); // 0xFF fill bytes may precede the marker code
+            } while (marker == 0xFF);
+
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                continue; // Standalone markers carry no length
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                throw invalid("JPEG"); // End of image or scan data before any frame header
+            }
+
+            int length = readU16BE(in);
+            if (length < 2) {
+                throw invalid("JPEG");
+            }
+            if (isStartOfFrame(marker)) {
+                readU8(in); // Sample precision
+                int height = readU16BE(in);
+                int width = readU16BE(in);
+                return new ImageMetadata(ImageFormat.JPEG, width, height);
+            }
+            skipFully(in, length - 2);
+        }
+    }
+
+    private boolean isStartOfFrame(int marker) {
+        // SOF0-SOF15 except DHT (C4), JPG (C8) and DAC (CC)
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    /**
+     * Signature, then the IHDR chunk, which the format requires to come first
+     */
+    private ImageMetadata readPng(InputStream in) throws IOException {
+        if (readU8(in) != 'N' || readU8(in) != 'G' || readU8(in) != 0x0D || readU8(in) != 0x0A
+                || readU8(in) != 0x1A || readU8(in) != 0x0A) {
+            throw invalid("PNG");
+        }
+        readU32BE(in); // IHDR length
+        if (readU8(in) != 'I' || readU8(in) != 'H' || readU8(in) != 'D' || readU8(in) != 'R') {
+            throw invalid("PNG");
+        }
+        int width = readU32BE(in);
+        int height = readU32BE(in);
+        return new ImageMetadata(ImageFormat.PNG, width, height);
+    }
+
+    /**
+     * RIFF container, then the first chunk: VP8 (lossy), VP8L (lossless) or VP8X (extended)
+     */
+    private ImageMetadata readWebp(InputStream in) throws IOException {
+        if (readU8(in) != 'F' || readU8(in) != 'F') {
+            throw invalid("WebP");
+        }
+        skipFully(in, 4); // RIFF size
+        if (readU8(in) != 'W' || readU8(in) != 'E' || readU8(in) != 'B' || readU8(in) != 'P') {
+            throw invalid("WebP");
+        }
+        if (readU8(in) != 'V' || readU8(in) != 'P' || readU8(in) != '8') {
+            throw invalid("WebP");
+        }
+        int variant = readU8(in);
+        skipFully(in, 4); // Chunk size
+
+        if (variant == ' ') {
+            skipFully(in, 3); // Frame tag
+            if (readU8(in) != 0x9D || readU8(in) != 0x01 || readU8(in) != 0x2A) {
+                throw invalid("WebP");
+            }
+            int width = readU16LE(in) & 0x3FFF;
+            int height = readU16LE(in) & 0x3FFF;
+            return new ImageMetadata(ImageFormat.WEBP, width, height);
+        }
+        if (variant == 'L') {
+            if (readU8(in) != 0x2F) {
+                throw invalid("WebP");
+            }
+            int bits = readU8(in) | (readU8(in) << 8) | (readU8(in) << 16) | (readU8(in) << 24);
+            int width = (bits & 0x3FFF) + 1;
+            int height = ((bits >>> 14) & 0x3FFF) + 1;
+            return new ImageMetadata(ImageFormat.WEBP, width, height);
+        }
+        if (variant == 'X') {
+            skipFully(in, 4); // Feature flags and reserved bytes
+            int width = readU24LE(in) + 1;
+            int height = readU24LE(in) + 1;
+            return new ImageMetadata(ImageFormat.WEBP, width, height);
+        }
+        throw invalid("WebP");
+    }
+
+    private static IllegalArgumentException invalid(String format) {
+        return new IllegalArgumentException("File is not a valid " + format + " image");
+    }
+
+    private static int readU8(InputStream in) throws IOException {
+        int value = in.read();
+        if (value < 0) {
+            throw new EOFException("Image header is truncated");
+        }
+        return value;
+    }
+
+    private static int readU16BE(InputStream in) throws IOException {
+        return (readU8(in) << 8) | readU8(in);
+    }
+
+    private static int readU16LE(InputStream in) throws IOException {
+        return readU8(in) | (readU8(in) << 8);
+    }
+
+    private static int readU24LE(InputStream in) throws IOException {
+        return readU8(in) | (readU8(in) << 8) | (readU8(in) << 16);
+    }
+
+    private static int readU32BE(InputStream in) throws IOException {
+        return (readU8(in) << 24) | (readU8(in) << 16) | (readU8(in) << 8) | readU8(in);
+    }
+
+    private static void skipFully(InputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                readU8(in); // skip() may return 0 before EOF; a read tells the two apart
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.Value;
+
+/**
+ * Format and pixel dimensions read from an image header
+ */
+@Value
+public class ImageMetadata {
+    ImageFormat format;
+    int width;
+    int height;
+}
@@ -0,0 +1,92 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Staging for the uploads of background jobs. Multipart temp files are gone once the request ends,
+ * so a job's images are copied to the BlobStore under jobs/staging/{stagingKey}/ before the job is
+ * committed. The blob store is durable and shared, so any instance can resume a job after a restart
+ * or a crash of the instance that accepted it. The prefix is outside the image prefixes, so the
+ * orphan collector leaves staged files alone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobStagingArea {
+
+    private static final String STAGING_PREFIX = "jobs/staging/";
+
+    private final BlobStore blobStore;
+
+    /**
+     * Copy the files into a new staging area and return its key. Nothing is left behind on failure.
+     */
+    public String stage(List<MultipartFile> files, List<StagedFile> manifest) {
+        String stagingKey = UUID.randomUUID().toString();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                String fileName = "file-" + i;
+                try (InputStream in = file.getInputStream()) {
+                    blobStore.put(objectKey(stagingKey, fileName), in, file.getSize(), file.getContentType());
+                }
+                manifest.add(new StagedFile(fileName, file.getOriginalFilename(), file.getContentType(), file.getSize()));
+            }
+            return stagingKey;
+        } catch (IOException e) {
+            delete(stagingKey);
+            throw new UncheckedIOException("Failed to stage uploaded images", e);
+        } catch (RuntimeException e) {
+            delete(stagingKey);
+            throw e;
+        }
+    }
+
+    /**
+     * The staged files of a job. Fails when any is missing.
+     */
+    public List<MultipartFile> open(String stagingKey, List<StagedFile> manifest) {
+        List<MultipartFile> files = new ArrayList<>(manifest.size());
+        for (StagedFile file : manifest) {
+            String key = objectKey(stagingKey, file.getFileName());
+            if (blobStore.stat(key).isEmpty()) {
+                throw new UncheckedIOException(new IOException("Staged image is missing: " + key));
+            }
+            files.add(new StagedMultipartFile(blobStore, key, file));
+        }
+        return files;
+    }
+
+    public void delete(String stagingKey) {
+        List<String> keys;
+        try (Stream<BlobInfo> objects = blobStore.list(STAGING_PREFIX + stagingKey + "/")) {
+            keys = objects.map(BlobInfo::getKey).toList();
+        } catch (RuntimeException e) {
+            log.warn("Failed to list staged images of {}: {}", stagingKey, e.getMessage());
+            return;
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        Map<String, String> failures = blobStore.deleteAll(keys);
+        if (!failures.isEmpty()) {
+            log.warn("Failed to delete {} staged image(s) of {}: {}", failures.size(), stagingKey, failures);
+        }
+    }
+
+    private static String objectKey(String stagingKey, String fileName) {
+        return STAGING_PREFIX + stagingKey + "/" + fileName;
+    }
+}
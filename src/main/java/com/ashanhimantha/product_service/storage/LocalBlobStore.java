@@ -0,0 +1,179 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps blobs as plain files under storage.local.root, one file per key, and exposes them under
+ * /media/** (MediaController). Writes go to a temporary file in the target directory that is then
+ * atomically renamed, so readers never see a partial image.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    public static final String MEDIA_PATH = "/media/";
+    private static final String TEMP_PREFIX = ".upload-";
+
+    private final Path root;
+    private final String publicBaseUrl;
+
+    public LocalBlobStore(@Value("${storage.local.root:./data/blobs}") String root,
+                          @Value("${storage.local.public-base-url:}") String publicBaseUrl) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+        Files.createDirectories(this.root);
+        log.info("Storing images on local disk under {}", this.root);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(TEMP_PREFIX + UUID.randomUUID());
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 ReadableByteChannel source = Channels.newChannel(content)) {
+                long position = 0;
+                while (position < contentLength) {
+                    long written = channel.transferFrom(source, position, contentLength - position);
+                    if (written <= 0) {
+                        throw new IOException("Upload ended after " + position + " of " + contentLength + " bytes");
+                    }
+                    position += written;
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new BlobInfo(key, attributes.size(), contentTypeOf(key),
+                    attributes.lastModifiedTime().toInstant()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public Map<String, String> deleteAll(Collection<String> keys) {
+        Map<String, String> failedKeys = new HashMap<>();
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException | IllegalArgumentException e) {
+                failedKeys.put(key, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        return failedKeys;
+    }
+
+    @Override
+    public Stream<BlobInfo> list(String prefix) {
+        Path start = resolve(prefix);
+        if (!Files.isDirectory(start)) {
+            return Stream.empty();
+        }
+        try {
+            return Files.walk(start)
+                    .filter(path -> !path.getFileName().toString().startsWith(TEMP_PREFIX))
+                    .map(this::toBlobInfo)
+                    .flatMap(Optional::stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<BlobInfo> toBlobInfo(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            String key = root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+            return Optional.of(new BlobInfo(key, attributes.size(), contentTypeOf(key),
+                    attributes.lastModifiedTime().toInstant()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty(); // Deleted while walking
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return publicBaseUrl + MEDIA_PATH + key;
+    }
+
+    @Override
+    public PresignedUpload presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        throw new IllegalStateException("Direct uploads are not available with local image storage; upload the images through the API instead");
+    }
+
+    /**
+     * Map a key to its file, rejecting keys that would escape the storage root
+     */
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || key.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return path;
+    }
+
+    /**
+     * Blobs are stored without metadata, so the content type comes from the extension the upload gave the key
+     */
+    public String contentTypeOf(String key) {
+        for (ImageFormat format : ImageFormat.values()) {
+            if (key.endsWith(format.getExtension())) {
+                return format.getContentType();
+            }
+        }
+        return "application/octet-stream";
+    }
+}
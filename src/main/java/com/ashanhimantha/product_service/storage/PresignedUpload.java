@@ -0,0 +1,14 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Value
+public class PresignedUpload {
+    String url;
+    String method;
+    Map<String, String> headers; // Must be sent unchanged with the upload
+    Instant expiresAt;
+}
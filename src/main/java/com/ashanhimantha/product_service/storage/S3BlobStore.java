@@ -0,0 +1,168 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    private static final int MAX_KEYS_PER_DELETE = 1000; // S3 DeleteObjects limit
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${aws.s3.base-url:}")
+    private String s3BaseUrl;
+
+    @Value("${aws.region:ap-southeast-2}")
+    private String awsRegion;
+
+    public S3BlobStore(S3Client s3Client, S3Presigner s3Presigner) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+        s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(content, contentLength));
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build());
+            long size = head.contentLength() != null ? head.contentLength() : 0;
+            return Optional.of(new BlobInfo(key, size, head.contentType(), head.lastModified()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String key) {
+        ResponseInputStream<GetObjectResponse> object =
+                s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build());
+        return new FilterInputStream(object) {
+            @Override
+            public void close() throws IOException {
+                // Dropping the connection is cheaper than draining a body the caller stopped reading
+                object.abort();
+                super.close();
+            }
+        };
+    }
+
+    @Override
+    public Map<String, String> deleteAll(Collection<String> keys) {
+        Map<String, String> failedKeys = new HashMap<>();
+        List<ObjectIdentifier> objects = new ArrayList<>(Math.min(keys.size(), MAX_KEYS_PER_DELETE));
+        for (String key : keys) {
+            objects.add(ObjectIdentifier.builder().key(key).build());
+            if (objects.size() == MAX_KEYS_PER_DELETE) {
+                deleteObjects(objects, failedKeys);
+                objects = new ArrayList<>(MAX_KEYS_PER_DELETE);
+            }
+        }
+        if (!objects.isEmpty()) {
+            deleteObjects(objects, failedKeys);
+        }
+        return failedKeys;
+    }
+
+    private void deleteObjects(List<ObjectIdentifier> objects, Map<String, String> failedKeys) {
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build()) // Quiet: only errors are returned
+                .build();
+        DeleteObjectsResponse response = s3Client.deleteObjects(request);
+        for (S3Error error : response.errors()) {
+            failedKeys.put(error.key(), error.code() + ": " + error.message());
+        }
+    }
+
+    @Override
+    public Stream<BlobInfo> list(String prefix) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder().bucket(bucketName).prefix(prefix).build();
+        // The paginator fetches one page (up to 1000 keys) at a time as the stream is consumed
+        return s3Client.listObjectsV2Paginator(request).contents().stream()
+                .map(object -> new BlobInfo(object.key(), object.size() != null ? object.size() : 0,
+                        null, object.lastModified()));
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        if (s3BaseUrl != null && !s3BaseUrl.isEmpty()) {
+            return s3BaseUrl + "/" + key;
+        }
+        // Fallback to standard S3 URL format
+        return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, awsRegion, key);
+    }
+
+    @Override
+    public PresignedUpload presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .putObjectRequest(putObjectRequest)
+                .build());
+
+        // Content-Type and Content-Length are signed, so S3 rejects uploads that differ from what was validated
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return new PresignedUpload(presigned.url().toString(), presigned.httpRequest().method().name(),
+                headers, presigned.expiration());
+    }
+}
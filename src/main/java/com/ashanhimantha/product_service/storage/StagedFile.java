@@ -0,0 +1,19 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One uploaded file kept in a JobStagingArea, with the multipart attributes needed to replay it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StagedFile {
+
+    private String fileName; // Name under the job's staging prefix
+    private String originalFilename;
+    private String contentType;
+    private long size;
+}
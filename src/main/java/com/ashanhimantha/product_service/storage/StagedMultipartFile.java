@@ -0,0 +1,81 @@
+package com.ashanhimantha.product_service.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A staged upload presented as a MultipartFile, so background jobs reuse the request-time upload path.
+ * The upload path reads a file several times (validation, hashing, storing), so the object is
+ * downloaded once and kept in memory; files are bounded by spring.servlet.multipart.max-file-size.
+ */
+class StagedMultipartFile implements MultipartFile {
+
+    private static final String PART_NAME = "files";
+
+    private final BlobStore blobStore;
+    private final String key;
+    private final StagedFile file;
+    private byte[] content;
+
+    StagedMultipartFile(BlobStore blobStore, String key, StagedFile file) {
+        this.blobStore = blobStore;
+        this.key = key;
+        this.file = file;
+    }
+
+    @Override
+    public String getName() {
+        return PART_NAME;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return file.getOriginalFilename();
+    }
+
+    @Override
+    public String getContentType() {
+        return file.getContentType();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return file.getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return file.getSize();
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        if (content == null) {
+            try (InputStream in = blobStore.open(key)) {
+                content = in.readAllBytes();
+            }
+        }
+        return content;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new ByteArrayInputStream(getBytes());
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.write(dest, getBytes());
+    }
+}
@@ -0,0 +1,13 @@
+package com.ashanhimantha.product_service.storage;
+
+import lombok.Value;
+
+/**
+ * A stored image: its public URL plus the dimensions read from its header at upload time
+ */
+@Value
+public class UploadedImage {
+    String url;
+    Integer width;
+    Integer height;
+}
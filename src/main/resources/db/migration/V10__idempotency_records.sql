@@ -0,0 +1,15 @@
+-- Idempotency-Key support (IdempotencyService): one row per client and key, holding the request
+-- fingerprint and, once the request has completed, the response to replay
+
+CREATE TABLE idempotency_records (
+    record_key      VARCHAR(64)                 NOT NULL,
+    fingerprint     VARCHAR(64)                 NOT NULL,
+    status          VARCHAR(20)                 NOT NULL,
+    response_status INT,
+    response_body   TEXT,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotency_records PRIMARY KEY (record_key)
+);
+
+CREATE INDEX idx_idempotency_records_expires_at ON idempotency_records (expires_at);
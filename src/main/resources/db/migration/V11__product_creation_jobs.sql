@@ -0,0 +1,23 @@
+-- Asynchronous product creation (ProductCreationJobService): one row per submitted job, holding the
+-- request and the manifest of its staged images until a worker has created the product
+
+CREATE SEQUENCE product_creation_jobs_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE product_creation_jobs (
+    id              BIGINT                      NOT NULL,
+    status          VARCHAR(20)                 NOT NULL,
+    request_payload TEXT                        NOT NULL,
+    staging_key     VARCHAR(36)                 NOT NULL,
+    staged_files    TEXT                        NOT NULL,
+    product_id      BIGINT,
+    attempts        INT                         NOT NULL,
+    available_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_error      VARCHAR(1000),
+    created_by      VARCHAR(255),
+    created_at      TIMESTAMP(6) WITH TIME ZONE,
+    started_at      TIMESTAMP(6) WITH TIME ZONE,
+    completed_at    TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_product_creation_jobs PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_product_creation_jobs_status_available ON product_creation_jobs (status, available_at);
@@ -0,0 +1,8 @@
+-- OutboxEvent ids are no longer block-allocated (allocationSize = 1): with pooled-lo every instance
+-- handed out ids from its own block of 50, so ids stopped following insert order across instances
+
+ALTER SEQUENCE outbox_events_seq INCREMENT BY 1;
+
+-- Under pooled-lo the last value returned is the low end of a block [v, v + 49] that may still be in
+-- use, so continue after it
+SELECT setval('outbox_events_seq', (SELECT last_value FROM outbox_events_seq) + 49);
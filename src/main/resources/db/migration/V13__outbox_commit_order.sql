@@ -0,0 +1,13 @@
+-- Change feed cursor by transaction id: ids and created_at are taken at insert, but a transaction may
+-- commit long after (product writes upload images inside it), so an id cursor could skip events that
+-- commit late. Each event now records the id of its writing transaction; the feed only serves events of
+-- transactions older than the oldest one still running, which no later commit can land in front of.
+
+ALTER TABLE outbox_events ADD COLUMN txid BIGINT;
+-- Existing history is committed; it sorts first and keeps its id order
+UPDATE outbox_events SET txid = 0;
+ALTER TABLE outbox_events ALTER COLUMN txid SET DEFAULT (pg_current_xact_id()::text::bigint);
+ALTER TABLE outbox_events ALTER COLUMN txid SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_outbox_events_aggregate_seq;
+CREATE INDEX idx_outbox_events_aggregate_txid ON outbox_events (aggregate_type, txid, id);
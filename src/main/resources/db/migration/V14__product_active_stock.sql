@@ -0,0 +1,11 @@
+-- Stock of active variants only, behind the storefront's inStock flag. total_stock also counts
+-- deactivated variants, whose units cannot be bought.
+
+ALTER TABLE products ADD COLUMN active_stock INT NOT NULL DEFAULT 0;
+
+UPDATE products p SET active_stock = a.active_stock
+FROM (SELECT v.product_id,
+             COALESCE(SUM(COALESCE(v.quantity, 0)) FILTER (WHERE v.is_active), 0) AS active_stock
+      FROM product_variants v
+      GROUP BY v.product_id) a
+WHERE p.id = a.product_id;
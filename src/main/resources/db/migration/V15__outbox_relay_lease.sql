@@ -0,0 +1,12 @@
+-- Outbox relay leadership: batches must go out in id order, so only one instance relays at a time.
+-- The holder renews lease_until on every run; once it lapses (instance gone, publish stuck) another
+-- instance takes over. Times come from the database clock so instances' clocks need not agree.
+
+CREATE TABLE outbox_relay_lease (
+    name        VARCHAR(50)                 NOT NULL,
+    owner       VARCHAR(64),
+    lease_until TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_outbox_relay_lease PRIMARY KEY (name)
+);
+
+INSERT INTO outbox_relay_lease (name, lease_until) VALUES ('outbox', '-infinity');
@@ -0,0 +1,85 @@
+-- Baseline schema. Existing databases that were created by ddl-auto are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and pick up from V2.
+
+CREATE SEQUENCE category_types_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE categories_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE product_variants_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+-- Hi/lo block source for generated SKUs (INCREMENT BY must match SkuGeneratorImpl.BLOCK_SIZE)
+CREATE SEQUENCE product_variant_sku_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE category_types (
+    id           BIGINT                      NOT NULL,
+    name         VARCHAR(255)                NOT NULL,
+    size_options VARCHAR(500)                NOT NULL,
+    status       VARCHAR(255)                NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_category_types PRIMARY KEY (id),
+    CONSTRAINT uk_category_types_name UNIQUE (name)
+);
+
+CREATE TABLE categories (
+    id               BIGINT       NOT NULL,
+    name             VARCHAR(255) NOT NULL,
+    description      VARCHAR(255),
+    image_url        VARCHAR(500),
+    category_type_id BIGINT,
+    status           VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_categories PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name),
+    CONSTRAINT fk_categories_category_type FOREIGN KEY (category_type_id) REFERENCES category_types (id)
+);
+
+CREATE TABLE products (
+    id           BIGINT                      NOT NULL,
+    name         VARCHAR(255)                NOT NULL,
+    description  TEXT,
+    product_type VARCHAR(255)                NOT NULL,
+    status       VARCHAR(255)                NOT NULL,
+    category_id  BIGINT                      NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE product_images (
+    product_id BIGINT NOT NULL,
+    image_url  TEXT,
+    CONSTRAINT fk_product_images_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE product_variants (
+    id            BIGINT                      NOT NULL,
+    product_id    BIGINT                      NOT NULL,
+    color         VARCHAR(50),
+    size          VARCHAR(255)                NOT NULL,
+    unit_cost     FLOAT(53)                   NOT NULL,
+    selling_price FLOAT(53)                   NOT NULL,
+    quantity      INT DEFAULT 0,
+    sku           VARCHAR(50),
+    is_active     BOOLEAN                     NOT NULL,
+    created_at    TIMESTAMP(6) WITH TIME ZONE,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_product_variants PRIMARY KEY (id),
+    CONSTRAINT uk_product_variants_product_color_size UNIQUE (product_id, color, size),
+    CONSTRAINT uk_product_variants_sku UNIQUE (sku),
+    CONSTRAINT fk_product_variants_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE outbox_events (
+    id             BIGINT                      NOT NULL,
+    aggregate_type VARCHAR(30)                 NOT NULL,
+    aggregate_id   BIGINT                      NOT NULL,
+    event_type     VARCHAR(40)                 NOT NULL,
+    payload        TEXT                        NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE,
+    published_at   TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_events_unpublished ON outbox_events (published_at, id);
+CREATE INDEX idx_outbox_events_aggregate_seq ON outbox_events (aggregate_type, id);
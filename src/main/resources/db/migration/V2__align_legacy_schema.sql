@@ -0,0 +1,62 @@
+-- Brings databases that were created by ddl-auto (and baselined at V1) in line with V1.
+-- Every statement is idempotent, so this is a no-op on a schema created by V1.
+
+-- The outbox arrived together with Flyway, so ddl-auto databases may not have it yet
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             BIGINT                      NOT NULL,
+    aggregate_type VARCHAR(30)                 NOT NULL,
+    aggregate_id   BIGINT                      NOT NULL,
+    event_type     VARCHAR(40)                 NOT NULL,
+    payload        TEXT                        NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE,
+    published_at   TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished ON outbox_events (published_at, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_events_aggregate_seq ON outbox_events (aggregate_type, id);
+
+-- IDENTITY -> pooled-lo sequences: position each sequence just past the current MAX(id)
+CREATE SEQUENCE IF NOT EXISTS category_types_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_variants_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_variant_sku_seq INCREMENT BY 100;
+
+SELECT setval('category_types_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM category_types), false);
+SELECT setval('categories_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM categories), false);
+SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM products), false);
+SELECT setval('product_variants_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM product_variants), false);
+SELECT setval('outbox_events_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM outbox_events), false);
+
+ALTER TABLE category_types ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE product_variants ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE outbox_events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- ddl-auto emitted CHECK constraints for enum columns; enum values now evolve through
+-- migrations instead, so drop the generated ones on the growing outbox enums
+ALTER TABLE outbox_events DROP CONSTRAINT IF EXISTS outbox_events_aggregate_type_check;
+ALTER TABLE outbox_events DROP CONSTRAINT IF EXISTS outbox_events_event_type_check;
+
+-- SKUs were not unique under ddl-auto. Blank SKUs become NULL; every further copy of a duplicated SKU
+-- (all but the oldest variant) gets its variant id appended, so the constraint below can be added
+UPDATE product_variants SET sku = NULL WHERE btrim(sku) = '';
+
+UPDATE product_variants v
+SET sku = left(v.sku, 50 - length(v.id::text) - 1) || '-' || v.id
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY sku ORDER BY id) AS copy
+    FROM product_variants
+    WHERE sku IS NOT NULL
+) d
+WHERE v.id = d.id AND d.copy > 1;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_product_variants_sku') THEN
+        ALTER TABLE product_variants ADD CONSTRAINT uk_product_variants_sku UNIQUE (sku);
+    END IF;
+END $$;
@@ -0,0 +1,19 @@
+-- Indexes backing the repository query methods.
+-- Already covered by constraints, so not duplicated here:
+--   product_variants(product_id) -> leading column of uk_product_variants_product_color_size (findByProductId)
+--   product_variants(sku)        -> uk_product_variants_sku
+
+-- ProductRepository.findByStatus / streamByStatus
+CREATE INDEX IF NOT EXISTS idx_products_status ON products (status, id);
+
+-- ProductRepository.findByCategoryIdAndStatus, existsByCategory (leading category_id)
+CREATE INDEX IF NOT EXISTS idx_products_category_status ON products (category_id, status);
+
+-- ProductVariantRepository.existsByAnySize
+CREATE INDEX IF NOT EXISTS idx_product_variants_size ON product_variants (size);
+
+-- Product.imageUrls element collection load and @BatchSize IN (...) lookups
+CREATE INDEX IF NOT EXISTS idx_product_images_product ON product_images (product_id);
+
+-- CategoryRepository.existsByCategoryType
+CREATE INDEX IF NOT EXISTS idx_categories_category_type ON categories (category_type_id);
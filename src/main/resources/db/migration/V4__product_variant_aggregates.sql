@@ -0,0 +1,24 @@
+-- Denormalized variant aggregates on products, maintained by variant writes
+-- (ProductRepository.refreshVariantAggregates) so list views never read product_variants.
+
+ALTER TABLE products ADD COLUMN total_stock INT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN min_price FLOAT(53);
+ALTER TABLE products ADD COLUMN max_price FLOAT(53);
+ALTER TABLE products ADD COLUMN active_variant_count INT NOT NULL DEFAULT 0;
+
+UPDATE products p SET
+    total_stock = a.total_stock,
+    min_price = a.min_price,
+    max_price = a.max_price,
+    active_variant_count = a.active_variant_count
+FROM (SELECT v.product_id,
+             COALESCE(SUM(COALESCE(v.quantity, 0)), 0) AS total_stock,
+             MIN(v.selling_price) FILTER (WHERE v.is_active) AS min_price,
+             MAX(v.selling_price) FILTER (WHERE v.is_active) AS max_price,
+             COUNT(*) FILTER (WHERE v.is_active) AS active_variant_count
+      FROM product_variants v
+      GROUP BY v.product_id) a
+WHERE p.id = a.product_id;
+
+-- Storefront price sort: findByStatus(ACTIVE) ordered by min_price
+CREATE INDEX idx_products_status_min_price ON products (status, min_price);
@@ -0,0 +1,4 @@
+-- Covering index for ProductVariantRepository.aggregateInventoryByCategory: the grouped scan
+-- reads only these columns, so it can run as an index-only scan instead of visiting the heap
+CREATE INDEX idx_product_variants_inventory ON product_variants (product_id)
+    INCLUDE (quantity, unit_cost, selling_price, is_active);
@@ -0,0 +1,7 @@
+-- Per-variant reorder threshold and the low-stock watchlist (ProductVariantRepository.findLowStock)
+
+ALTER TABLE product_variants ADD COLUMN reorder_threshold INT NOT NULL DEFAULT 0;
+
+-- Partial index: holds only the (few) low-stock rows, so the watchlist never scans the full table
+CREATE INDEX idx_product_variants_low_stock ON product_variants (id)
+    WHERE is_active = true AND quantity <= reorder_threshold;
@@ -0,0 +1,15 @@
+-- Durable queue of S3 objects to delete, drained by ImageDeletionWorker
+
+CREATE SEQUENCE image_deletion_queue_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE image_deletion_queue (
+    id              BIGINT                      NOT NULL,
+    object_key      VARCHAR(1024)               NOT NULL,
+    attempts        INT                         NOT NULL,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_image_deletion_queue PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_image_deletion_queue_due ON image_deletion_queue (next_attempt_at);
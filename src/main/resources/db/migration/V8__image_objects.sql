@@ -0,0 +1,14 @@
+-- Reference-counted, content-addressed image objects (blobs/{sha256}.{ext}), see ImageObjectRepository
+
+CREATE TABLE image_objects (
+    object_key   VARCHAR(1024)               NOT NULL,
+    content_hash VARCHAR(64)                 NOT NULL,
+    content_type VARCHAR(100)                NOT NULL,
+    size_bytes   BIGINT                      NOT NULL,
+    ref_count    INT                         NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_image_objects PRIMARY KEY (object_key)
+);
+
+CREATE INDEX idx_image_objects_content_hash ON image_objects (content_hash);
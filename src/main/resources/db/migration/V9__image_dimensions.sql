@@ -0,0 +1,7 @@
+-- Pixel dimensions read from the image header on upload (ImageInspector); null for older images
+
+ALTER TABLE product_images ADD COLUMN width INT;
+ALTER TABLE product_images ADD COLUMN height INT;
+
+ALTER TABLE categories ADD COLUMN image_width INT;
+ALTER TABLE categories ADD COLUMN image_height INT;
@@ -0,0 +1,97 @@
+package com.ashanhimantha.product_service.bulkhead;
+
+import com.ashanhimantha.product_service.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void admitsUpToTheLimitAndRejectsTheRest() {
+        Bulkhead bulkhead = new Bulkhead("admin-write", 2, 0, meterRegistry);
+
+        assertThat(bulkhead.tryEnter()).isTrue();
+        assertThat(bulkhead.tryEnter()).isTrue();
+        assertThat(bulkhead.tryEnter()).isFalse();
+        assertThatThrownBy(bulkhead::enter)
+                .isInstanceOf(ServiceOverloadedException.class)
+                .hasMessageContaining("admin-write");
+
+        assertThat(gauge("bulkhead.active", "admin-write")).isEqualTo(2);
+        assertThat(gauge("bulkhead.max", "admin-write")).isEqualTo(2);
+        assertThat(meterRegistry.get("bulkhead.rejected").tag("bulkhead", "admin-write").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void exitFreesThePermit() {
+        Bulkhead bulkhead = new Bulkhead("storage-io", 1, 0, meterRegistry);
+        bulkhead.enter();
+        bulkhead.exit();
+
+        assertThat(bulkhead.tryEnter()).isTrue();
+        assertThat(bulkhead.active()).isEqualTo(1);
+    }
+
+    @Test
+    void waitingCallerGetsInWhenAPermitFreesUpWithinMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("storage-io", 1, 5_000, meterRegistry);
+        bulkhead.enter();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(bulkhead::tryEnter);
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        bulkhead.exit();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void waitIsBoundedByMaxWait() {
+        Bulkhead bulkhead = new Bulkhead("public-read", 1, 100, meterRegistry);
+        bulkhead.enter();
+
+        long start = System.nanoTime();
+        assertThat(bulkhead.tryEnter()).isFalse();
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(waitedMs).isBetween(90L, 2_000L);
+    }
+
+    @Test
+    void interruptedCallerIsRejectedAndKeepsItsInterruptFlag() {
+        Bulkhead bulkhead = new Bulkhead("storage-io", 1, 5_000, meterRegistry);
+        bulkhead.enter();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(bulkhead.tryEnter()).isFalse();
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void fullAdminBulkheadLeavesStorefrontCapacity() {
+        Bulkheads bulkheads = new Bulkheads(meterRegistry, 150, 0, 4, 0, 3, 0);
+        for (int i = 0; i < 4; i++) {
+            bulkheads.adminWrite().enter();
+        }
+
+        assertThat(bulkheads.adminWrite().tryEnter()).isFalse();
+        assertThat(bulkheads.publicRead().tryEnter()).isTrue();
+        assertThat(bulkheads.storageIo().tryEnter()).isTrue();
+    }
+
+    private double gauge(String name, String bulkhead) {
+        return meterRegistry.get(name).tag("bulkhead", bulkhead).gauge().value();
+    }
+}
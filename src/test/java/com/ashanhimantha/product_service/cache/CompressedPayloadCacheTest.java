@@ -0,0 +1,130 @@
+package com.ashanhimantha.product_service.cache;
+
+import com.ashanhimantha.product_service.datasource.PrimaryReadContext;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+import com.ashanhimantha.product_service.service.CatalogChangedEvent;
+import com.ashanhimantha.product_service.support.MutableClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedPayloadCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final CompressedPayloadCache cache = new CompressedPayloadCache(new ObjectMapper(), 9, 3, Duration.ofSeconds(30), clock);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearContext() {
+        PrimaryReadContext.clear();
+    }
+
+    @Test
+    void payloadHoldsJsonGzipAndDigest() throws IOException {
+        CompressedPayload payload = cache.get("product:1", () -> Map.of("name", "T-Shirt"));
+
+        assertThat(new String(payload.getIdentity())).isEqualTo("{\"name\":\"T-Shirt\"}");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload.getGzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(payload.getIdentity());
+        }
+        assertThat(payload.getContentHash()).isEqualTo(DigestUtils.md5DigestAsHex(payload.getIdentity()));
+    }
+
+    @Test
+    void hitReturnsTheCachedPayloadWithoutLoading() {
+        CompressedPayload first = cache.get("product:1", this::load);
+        CompressedPayload second = cache.get("product:1", this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void productChangeEvictsOnlyThatProduct() {
+        cache.get("product:1", this::load);
+        cache.get("product:2", this::load);
+
+        cache.onCatalogChanged(new CatalogChangedEvent(ChangeEventType.PRODUCT_UPDATED, 1L));
+        cache.get("product:1", this::load);
+        cache.get("product:2", this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void categoryChangeClearsEveryEntry() {
+        cache.get("categories:summary", this::load);
+        cache.get("product:1", this::load);
+
+        cache.onCatalogChanged(new CatalogChangedEvent(ChangeEventType.CATEGORY_UPDATED, 7L));
+        cache.get("categories:summary", this::load);
+        cache.get("product:1", this::load);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void entryExpiresAfterTheTtlSoOtherInstancesWritesShowUp() {
+        cache.get("product:1", this::load);
+        clock.advance(Duration.ofSeconds(29));
+        cache.get("product:1", this::load);
+        assertThat(loads).hasValue(1);
+
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("product:1", this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void payloadLoadedAcrossAnInvalidationIsServedButNotCached() {
+        cache.get("product:1", () -> {
+            cache.onCatalogChanged(new CatalogChangedEvent(ChangeEventType.PRODUCT_UPDATED, 1L));
+            return load();
+        });
+        cache.get("product:1", this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedAtCapacity() {
+        cache.get("product:1", this::load);
+        cache.get("product:2", this::load);
+        cache.get("product:3", this::load);
+        cache.get("product:1", this::load); // Hit, so product:2 is now the eldest
+        cache.get("product:4", this::load);
+
+        cache.get("product:1", this::load);
+        assertThat(loads).hasValue(4);
+        cache.get("product:2", this::load);
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void loaderReadsFromThePrimaryAndLeavesTheContextAsItWas() {
+        cache.get("product:1", () -> List.of(PrimaryReadContext.isPrimaryForced()));
+        assertThat(PrimaryReadContext.isPrimaryForced()).isFalse();
+
+        PrimaryReadContext.forcePrimary();
+        cache.get("product:2", () -> List.of(PrimaryReadContext.isPrimaryForced()));
+        assertThat(PrimaryReadContext.isPrimaryForced()).isTrue();
+
+        assertThat(new String(cache.get("product:1", this::load).getIdentity())).isEqualTo("[true]");
+    }
+
+    private Object load() {
+        return Map.of("load", loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,84 @@
+package com.ashanhimantha.product_service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost of gzip levels (catalog.cache.gzip-level) on a product-list-like payload,
+ * where the category block repeats in every product.
+ * Run main() from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GzipLevelBenchmark {
+
+    @Param({"1", "6", "9"})
+    private int level;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Map<String, Object>> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("id", 3);
+            category.put("name", "Men's T-Shirts");
+            category.put("description", "Short and long sleeve t-shirts in cotton and blends");
+            category.put("imageUrl", "https://cdn.example.com/blobs/4f1c2a9e8b7d6c5e4f3a2b1c0d9e8f7a6b5c4d3e2f1a0b9c8d7e6f5a4b3c2d1e.jpg");
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("id", 1000 + i);
+            product.put("name", "Classic Crew Neck Tee " + i);
+            product.put("minPrice", 19.99 + i);
+            product.put("maxPrice", 24.99 + i);
+            product.put("inStock", i % 7 != 0);
+            product.put("category", category);
+            product.put("imageUrls", List.of("https://cdn.example.com/blobs/" + Integer.toHexString(i * 7919) + ".jpg"));
+            products.add(product);
+        }
+        json = new ObjectMapper().writeValueAsBytes(Map.of("content", products, "totalElements", 50));
+    }
+
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(json);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GzipLevelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
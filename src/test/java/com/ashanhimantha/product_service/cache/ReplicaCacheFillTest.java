@@ -0,0 +1,143 @@
+package com.ashanhimantha.product_service.cache;
+
+import com.ashanhimantha.product_service.config.ReadReplicaDataSourceConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache fills against a primary with a streaming replica whose replay is paused, so the replica
+ * lags deterministically: a payload built right after a write must still contain that write.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReadReplicaDataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Routing depends on each transaction's read-only flag
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaCacheFillTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(Transferable.of("echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\""),
+                    "/docker-entrypoint-initdb.d/replication.sh")
+            .withCommand("postgres", "-c", "wal_level=replica", "-c", "max_wal_senders=4");
+
+    @Container
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>("postgres:16-alpine")
+            .dependsOn(PRIMARY)
+            .withNetwork(NETWORK)
+            .withEnv("PGPASSWORD", "test")
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+            .withCommand("sh", "-c", "pg_basebackup -h primary -U test -D /tmp/replica -R -X stream"
+                    + " && chmod 700 /tmp/replica && exec postgres -D /tmp/replica")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+
+    @DynamicPropertySource
+    static void replicationProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("datasource.replica.enabled", () -> "true");
+        registry.add("datasource.replica.url", () -> "jdbc:postgresql://" + REPLICA.getHost() + ":"
+                + REPLICA.getMappedPort(5432) + "/" + PRIMARY.getDatabaseName());
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CompressedPayloadCache cache = new CompressedPayloadCache(new ObjectMapper(), 6, 10, 30);
+
+    @AfterEach
+    void resumeReplay() {
+        replica().execute("SELECT pg_wal_replay_resume()");
+    }
+
+    @Test
+    void readOnlyTransactionsRunOnTheReplica() {
+        Boolean inRecovery = inTransaction(true, jdbc -> jdbc.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+        assertThat(inRecovery).isTrue();
+    }
+
+    @Test
+    void cacheFillReadsTheWriteThatTheLaggingReplicaHasNotReplayed() throws InterruptedException {
+        awaitReplicaCaughtUp(); // Including the schema migrations
+        replica().execute("SELECT pg_wal_replay_pause()");
+        String name = "Replica lag " + UUID.randomUUID();
+        inTransaction(false, jdbc -> jdbc.update(
+                "INSERT INTO category_types (id, name, size_options, status, created_at) "
+                        + "VALUES (nextval('category_types_seq'), ?, 'S,M,L', 'ACTIVE', now())", name));
+
+        // The replica is behind: a plain read-only load would build a stale payload
+        assertThat(inTransaction(true, this::categoryTypeNames)).doesNotContain(name);
+
+        CompressedPayload payload = cache.get("category-types", () -> inTransaction(true, this::categoryTypeNames));
+
+        assertThat(new String(payload.getIdentity(), StandardCharsets.UTF_8)).contains(name);
+    }
+
+    private List<String> categoryTypeNames(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT name FROM category_types", String.class);
+    }
+
+    private void awaitReplicaCaughtUp() throws InterruptedException {
+        String primaryLsn = inTransaction(false, jdbc -> jdbc.queryForObject("SELECT pg_current_wal_lsn()::text", String.class));
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Boolean caughtUp = replica().queryForObject("SELECT pg_last_wal_replay_lsn() >= ?::pg_lsn", Boolean.class, primaryLsn);
+            if (Boolean.TRUE.equals(caughtUp)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Replica did not catch up with " + primaryLsn);
+    }
+
+    private <T> T inTransaction(boolean readOnly, Function<JdbcTemplate, T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> work.apply(new JdbcTemplate(dataSource)));
+    }
+
+    private JdbcTemplate replica() {
+        DriverManagerDataSource replica = new DriverManagerDataSource(
+                "jdbc:postgresql://" + REPLICA.getHost() + ":" + REPLICA.getMappedPort(5432) + "/" + PRIMARY.getDatabaseName(),
+                PRIMARY.getUsername(), PRIMARY.getPassword());
+        return new JdbcTemplate(replica);
+    }
+}
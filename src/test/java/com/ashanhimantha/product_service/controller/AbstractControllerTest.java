@@ -0,0 +1,63 @@
+package com.ashanhimantha.product_service.controller;
+
+import com.ashanhimantha.product_service.cache.CompressedPayload;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AbstractControllerTest {
+
+    private final AbstractController controller = new AbstractController() {
+    };
+
+    private final CompressedPayload payload = new CompressedPayload(new byte[]{'{', '}'}, new byte[]{31, -117}, "abc");
+
+    @Test
+    void gzipNeedsANonZeroQuality() {
+        assertThat(AbstractController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(AbstractController.acceptsGzip("br;q=1.0, gzip;q=0.5")).isTrue();
+        assertThat(AbstractController.acceptsGzip("GZIP")).isTrue();
+        assertThat(AbstractController.acceptsGzip("x-gzip")).isTrue();
+        assertThat(AbstractController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AbstractController.acceptsGzip("gzip; q=0.000")).isFalse();
+        assertThat(AbstractController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(AbstractController.acceptsGzip("identity")).isFalse();
+        assertThat(AbstractController.acceptsGzip("")).isFalse();
+        assertThat(AbstractController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void wildcardCountsOnlyWhenGzipIsNotListed() {
+        assertThat(AbstractController.acceptsGzip("*")).isTrue();
+        assertThat(AbstractController.acceptsGzip("br, *;q=0.1")).isTrue();
+        assertThat(AbstractController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(AbstractController.acceptsGzip("gzip;q=0, *")).isFalse();
+    }
+
+    @Test
+    void malformedQualityIsNotConsent() {
+        assertThat(AbstractController.acceptsGzip("gzip;q=high")).isFalse();
+    }
+
+    @Test
+    void responseEncodingAndEtagFollowTheNegotiation() {
+        ResponseEntity<byte[]> gzip = controller.compressed(payload, "gzip", null);
+        ResponseEntity<byte[]> identity = controller.compressed(payload, "gzip;q=0", null);
+
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getETag()).isEqualTo("\"abc-gzip\"");
+        assertThat(gzip.getBody()).isEqualTo(payload.getGzip());
+        assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(identity.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(identity.getBody()).isEqualTo(payload.getIdentity());
+    }
+
+    @Test
+    void matchingEtagIsNotModified() {
+        assertThat(controller.compressed(payload, "gzip", "\"abc-gzip\"").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(controller.compressed(payload, null, "\"abc-gzip\"").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ashanhimantha.product_service.controller;
+
+import com.ashanhimantha.product_service.exception.ResourceNotFoundException;
+import com.ashanhimantha.product_service.storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaControllerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    private Path tempDir;
+
+    private MediaController controller;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(tempDir.toString(), "");
+        store.put("blobs/image.png", new ByteArrayInputStream(CONTENT), CONTENT.length, "image/png");
+        controller = new MediaController(store);
+    }
+
+    @Test
+    void servesTheWholeImage() throws IOException {
+        MockHttpServletResponse response = serve(request());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void servesASingleRange() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/16");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(CONTENT, 2, 6));
+    }
+
+    @Test
+    void suffixRangeServesTheTail() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(CONTENT, 13, 16));
+    }
+
+    @Test
+    void ifRangeWithTheCurrentEtagServesTheRangeAndAStaleOneTheWholeImage() throws IOException {
+        String etag = serve(request()).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest current = request();
+        current.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        current.addHeader(HttpHeaders.IF_RANGE, etag);
+        MockHttpServletRequest stale = request();
+        stale.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        assertThat(serve(current).getStatus()).isEqualTo(206);
+        MockHttpServletResponse full = serve(stale);
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(full.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(full.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */16");
+    }
+
+    @Test
+    void malformedOrMultipleRangesGetTheWholeImage() throws IOException {
+        for (String range : new String[]{"bytes=oops", "bytes=0-1,4-5"}) {
+            MockHttpServletRequest request = request();
+            request.addHeader(HttpHeaders.RANGE, range);
+            MockHttpServletResponse response = serve(request);
+            assertThat(response.getStatus()).as(range).isEqualTo(200);
+            assertThat(response.getContentAsByteArray()).as(range).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws IOException {
+        String etag = serve(request()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void headSendsTheLengthWithoutABody() throws IOException {
+        MockHttpServletRequest request = request();
+        request.setMethod("HEAD");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getContentLengthLong()).isEqualTo(16);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void keysOutsideTheRootAreNotFound() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/..%2F..%2Fetc%2Fpasswd");
+
+        assertThatThrownBy(() -> serve(request)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/media/blobs/image.png");
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ashanhimantha.product_service.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Anonymous clients are keyed by the remote address, which server.forward-headers-strategy=native has
+ * Tomcat rewrite from X-Forwarded-For before any filter runs; the filter itself never trusts the header.
+ */
+class RateLimitFilterTest {
+
+    // One request per second, two at once
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper(), 1, 2);
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void anonymousClientsAreLimitedPerRemoteAddress() throws Exception {
+        assertThat(call(fromAddress("203.0.113.7")).getStatus()).isEqualTo(200);
+        assertThat(call(fromAddress("203.0.113.7")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = call(fromAddress("203.0.113.7"));
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("Too many requests");
+        assertThat(call(fromAddress("198.51.100.20")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void rawForwardedForHeaderDoesNotBuyAFreshBucket() throws Exception {
+        for (String spoofed : List.of("10.0.0.1", "10.0.0.2", "10.0.0.3")) {
+            MockHttpServletRequest request = fromAddress("203.0.113.8");
+            request.addHeader("X-Forwarded-For", spoofed);
+            call(request);
+        }
+
+        MockHttpServletRequest request = fromAddress("203.0.113.8");
+        request.addHeader("X-Forwarded-For", "10.0.0.4");
+        assertThat(call(request).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void authenticatedClientsAreLimitedPerSubjectAcrossAddresses() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("subject-1", null, List.of()));
+
+        assertThat(call(fromAddress("203.0.113.9")).getStatus()).isEqualTo(200);
+        assertThat(call(fromAddress("203.0.113.10")).getStatus()).isEqualTo(200);
+        assertThat(call(fromAddress("203.0.113.11")).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void actuatorIsNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = fromAddress("203.0.113.12");
+            request.setServletPath("/actuator/health");
+            assertThat(call(request).getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletRequest fromAddress(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.setServletPath("/api/v1/products");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private MockHttpServletResponse call(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
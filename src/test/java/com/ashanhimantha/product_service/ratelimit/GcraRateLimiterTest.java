@@ -0,0 +1,127 @@
+package com.ashanhimantha.product_service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GcraRateLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // 10 requests per second: one token every 100 ms, up to 5 at once
+    private final GcraRateLimiter limiter = new GcraRateLimiter(10, 5);
+
+    @Test
+    void fullBucketAllowsTheBurstThenReportsTheWaitForTheNextToken() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("client", 0)).isZero();
+        }
+        assertThat(limiter.tryAcquire("client", 0)).isEqualTo(100 * MS);
+        assertThat(limiter.tryAcquire("client", 40 * MS)).isEqualTo(60 * MS);
+    }
+
+    @Test
+    void emptyBucketRefillsAtTheConfiguredRate() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("client", 0);
+        }
+
+        assertThat(limiter.tryAcquire("client", 100 * MS)).isZero();
+        assertThat(limiter.tryAcquire("client", 100 * MS)).isEqualTo(100 * MS);
+        assertThat(limiter.tryAcquire("client", 350 * MS)).isZero(); // 2.5 intervals later: two tokens
+        assertThat(limiter.tryAcquire("client", 350 * MS)).isZero();
+        assertThat(limiter.tryAcquire("client", 350 * MS)).isEqualTo(50 * MS);
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("client", 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("client", 50 * MS);
+        }
+
+        assertThat(limiter.tryAcquire("client", 100 * MS)).isZero();
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToTheBurst() {
+        limiter.tryAcquire("client", 0);
+
+        long later = TimeUnit.SECONDS.toNanos(60);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("client", later)).isZero();
+        }
+        assertThat(limiter.tryAcquire("client", later)).isPositive();
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("scraper", 0);
+        }
+
+        assertThat(limiter.tryAcquire("scraper", 0)).isPositive();
+        assertThat(limiter.tryAcquire("storefront", 0)).isZero();
+    }
+
+    @Test
+    void evictIdleDropsOnlyRefilledClients() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("busy", 0); // Bucket empty until 500 ms
+        }
+        limiter.tryAcquire("quiet", 0); // Bucket full again at 100 ms
+
+        assertThat(limiter.evictIdle(200 * MS)).isEqualTo(1);
+        assertThat(limiter.trackedClients()).isEqualTo(1);
+        assertThat(limiter.evictIdle(500 * MS)).isEqualTo(1);
+        assertThat(limiter.trackedClients()).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        GcraRateLimiter shared = new GcraRateLimiter(1, 50);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (shared.tryAcquire("client", 0) == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(allowed).hasValue(50);
+    }
+
+    @Test
+    void rejectsNonPositiveRateAndEmptyBurst() {
+        assertThatThrownBy(() -> new GcraRateLimiter(0, 5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GcraRateLimiter(10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ashanhimantha.product_service.repository;
+
+import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.CategoryType;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import com.ashanhimantha.product_service.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Category and CategoryType lookups are served by the second-level and query caches once loaded.
+ * Every repository call runs in its own transaction (and persistence context), so the first-level
+ * cache cannot be what answers the repeats.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=classpath:ehcache.xml",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatementCounter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CategoryCacheTest extends PostgresContainerTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryTypeRepository categoryTypeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedCategoryLookupsDoNotHitTheDatabase() {
+        CategoryType type = new CategoryType();
+        type.setName("Cache sizes " + System.nanoTime());
+        type.setSizeOptions("S,M,L");
+        categoryTypeRepository.save(type);
+        Category category = new Category();
+        category.setName("Cache category " + System.nanoTime());
+        category.setCategoryType(type);
+        Long id = categoryRepository.save(category).getId();
+
+        categoryRepository.findById(id); // Warm up, in case the insert did not populate the region
+        statistics.clear();
+        statementCounter.reset();
+
+        for (int i = 0; i < 5; i++) {
+            Category loaded = categoryRepository.findById(id).orElseThrow();
+            assertThat(loaded.getCategoryType().getId()).isEqualTo(type.getId());
+        }
+
+        assertThat(statementCounter.count()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("categories").getHitCount()).isEqualTo(5);
+        assertThat(statistics.getDomainDataRegionStatistics("category-types").getHitCount()).isEqualTo(5);
+    }
+
+    @Test
+    void repeatedFindAllIsServedByTheQueryCache() {
+        CategoryType type = new CategoryType();
+        type.setName("Query cache sizes " + System.nanoTime());
+        type.setSizeOptions("28,30,32");
+        categoryTypeRepository.save(type);
+
+        categoryTypeRepository.findAll();
+        categoryRepository.findAll();
+        statistics.clear();
+        statementCounter.reset();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(categoryTypeRepository.findAll()).extracting(CategoryType::getId).contains(type.getId());
+            categoryRepository.findAll();
+        }
+
+        assertThat(statementCounter.count()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(10);
+    }
+
+    @Test
+    void writeInvalidatesTheCachedQuery() {
+        categoryTypeRepository.findAll();
+        CategoryType type = new CategoryType();
+        type.setName("Invalidation sizes " + System.nanoTime());
+        type.setSizeOptions("S,M");
+        categoryTypeRepository.save(type);
+
+        statementCounter.reset();
+        assertThat(categoryTypeRepository.findAll()).extracting(CategoryType::getId).contains(type.getId());
+        assertThat(statementCounter.count()).isEqualTo(1);
+    }
+}
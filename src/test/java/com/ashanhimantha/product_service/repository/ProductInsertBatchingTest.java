@@ -0,0 +1,81 @@
+package com.ashanhimantha.product_service.repository;
+
+import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.Product;
+import com.ashanhimantha.product_service.entity.ProductVariant;
+import com.ashanhimantha.product_service.entity.enums.Status;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import com.ashanhimantha.product_service.support.StatementCounter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips needed to insert a product with 50 variants, with and without JDBC batching.
+ * Sequence ids let Hibernate batch the inserts; with IDENTITY ids (or batching off) every row is its own trip.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StatementCounter.class)
+class ProductInsertBatchingTest extends PostgresContainerTest {
+
+    private static final int VARIANTS = 50;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Test
+    void productWithFiftyVariantsIsInsertedInAHandfulOfRoundTrips() {
+        Category category = new Category();
+        category.setName("Batching");
+        categoryRepository.saveAndFlush(category);
+
+        long unbatched = roundTripsToInsertProduct(category, 1);
+        long batched = roundTripsToInsertProduct(category, VARIANTS);
+
+        assertThat(unbatched).isGreaterThan(VARIANTS);
+        // products_seq + product_variants_seq (one pooled block each) + one product and one variant batch
+        assertThat(batched).isLessThanOrEqualTo(4);
+    }
+
+    private long roundTripsToInsertProduct(Category category, int jdbcBatchSize) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+        Product product = new Product();
+        product.setName("Product batch " + jdbcBatchSize);
+        product.setStatus(Status.ACTIVE);
+        product.setCategory(category);
+        for (int i = 0; i < VARIANTS; i++) {
+            ProductVariant variant = new ProductVariant();
+            variant.setProduct(product);
+            variant.setSize("S" + i);
+            variant.setUnitCost(10.0);
+            variant.setSellingPrice(20.0);
+            variant.setQuantity(5);
+            product.getVariants().add(variant);
+        }
+        product.recalculateVariantAggregates();
+
+        statementCounter.reset();
+        productRepository.save(product);
+        entityManager.flush();
+        long roundTrips = statementCounter.count();
+        entityManager.clear();
+        return roundTrips;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ashanhimantha.product_service.security;
+
+import com.ashanhimantha.product_service.support.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtAuthenticationManagerTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final Map<String, Instant> expiries = new HashMap<>();
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final AuthenticationProvider delegate = new AuthenticationProvider() {
+        @Override
+        public Authentication authenticate(Authentication authentication) {
+            verifications.incrementAndGet();
+            String token = ((BearerTokenAuthenticationToken) authentication).getToken();
+            if (!expiries.containsKey(token)) {
+                throw new BadCredentialsException("Invalid token");
+            }
+            Jwt.Builder jwt = Jwt.withTokenValue(token).header("alg", "RS256").subject("admin-" + token).issuedAt(NOW);
+            if (expiries.get(token) != null) {
+                jwt.expiresAt(expiries.get(token));
+            }
+            return new JwtAuthenticationToken(jwt.build(), List.of(new SimpleGrantedAuthority("ROLE_SuperAdmins")));
+        }
+
+        @Override
+        public boolean supports(Class<?> authentication) {
+            return BearerTokenAuthenticationToken.class.isAssignableFrom(authentication);
+        }
+    };
+
+    private final CachingJwtAuthenticationManager manager = new CachingJwtAuthenticationManager(delegate, 2, clock);
+
+    @Test
+    void tokenIsVerifiedOnceUntilItExpires() {
+        expiries.put("a", NOW.plus(Duration.ofMinutes(10)));
+
+        Authentication first = manager.authenticate(bearer("a"));
+        clock.advance(Duration.ofMinutes(9));
+        Authentication second = manager.authenticate(bearer("a"));
+
+        assertThat(verifications).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("admin-a");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_SuperAdmins");
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void expiredEntryIsVerifiedAgain() {
+        expiries.put("a", NOW.plus(Duration.ofMinutes(10)));
+        manager.authenticate(bearer("a"));
+
+        clock.advance(Duration.ofMinutes(10));
+        manager.authenticate(bearer("a"));
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void failuresAndTokensWithoutExpiryAreNotCached() {
+        expiries.put("no-exp", null);
+
+        assertThatThrownBy(() -> manager.authenticate(bearer("forged"))).isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> manager.authenticate(bearer("forged"))).isInstanceOf(BadCredentialsException.class);
+        manager.authenticate(bearer("no-exp"));
+        manager.authenticate(bearer("no-exp"));
+
+        assertThat(verifications).hasValue(4);
+    }
+
+    @Test
+    void cacheIsBoundedAtCapacity() {
+        List<String> tokens = List.of("a", "b", "c");
+        for (String token : tokens) {
+            expiries.put(token, NOW.plus(Duration.ofHours(1)));
+            manager.authenticate(bearer(token));
+        }
+        assertThat(verifications).hasValue(3);
+
+        // Two entries fit, so going over all three tokens again verifies at least one of them again
+        tokens.forEach(token -> manager.authenticate(bearer(token)));
+        assertThat(verifications.get()).isBetween(4, 6);
+    }
+
+    @Test
+    void concurrentRequestsShareTheCache() throws Exception {
+        expiries.put("a", NOW.plus(Duration.ofHours(1)));
+        manager.authenticate(bearer("a"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Authentication>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                results.add(executor.submit(() -> manager.authenticate(bearer("a"))));
+            }
+            for (Future<Authentication> result : results) {
+                assertThat(result.get().getName()).isEqualTo("admin-a");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(verifications).hasValue(1);
+    }
+
+    private static BearerTokenAuthenticationToken bearer(String token) {
+        return new BearerTokenAuthenticationToken(token);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ashanhimantha.product_service.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request routing cost of the public chain on a storefront-heavy request mix. "before" is the
+ * previous setup: the securityMatcher lambda, then the public chain's authorizeHttpRequests matchers
+ * for every request it accepted. "after" is the single precompiled PublicRequestMatcher, after which
+ * the public chain runs no authorization. Run main() from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicRequestMatcherBenchmark {
+
+    private static final RequestMatcher LEGACY_CHAIN_MATCHER = request -> {
+        String path = request.getServletPath();
+        if (path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs") || path.startsWith("/api-docs")
+                || path.startsWith("/swagger-resources") || path.startsWith("/webjars/") || path.equals("/swagger-ui.html")) {
+            return true;
+        }
+        if (path.startsWith("/actuator/health") || path.equals("/actuator/info")) {
+            return true;
+        }
+        if (path.startsWith("/media/")) {
+            return true;
+        }
+        return "GET".equals(request.getMethod()) && !path.contains("/admin")
+                && (path.startsWith("/api/v1/categories") || path.startsWith("/api/v1/products")
+                || path.startsWith("/api/v1/category-types"));
+    };
+
+    private static final List<RequestMatcher> LEGACY_PERMIT_ALL = List.of(
+            new AntPathRequestMatcher("/swagger-ui/**"), new AntPathRequestMatcher("/swagger-ui.html"),
+            new AntPathRequestMatcher("/v3/api-docs/**"), new AntPathRequestMatcher("/api-docs/**"),
+            new AntPathRequestMatcher("/swagger-resources/**"), new AntPathRequestMatcher("/webjars/**"),
+            new AntPathRequestMatcher("/api/v1/categories/**", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/actuator/health/**"), new AntPathRequestMatcher("/actuator/info"),
+            new AntPathRequestMatcher("/media/**", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/media/**", HttpMethod.HEAD.name()),
+            new AntPathRequestMatcher("/api/v1/products/**", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/v1/category-types/**", HttpMethod.GET.name()));
+
+    private final PublicRequestMatcher matcher = PublicRequestMatcher.builder()
+            .anyMethod("/swagger-ui", "/swagger-ui.html", "/v3/api-docs", "/api-docs", "/swagger-resources", "/webjars")
+            .anyMethod("/actuator/health", "/actuator/info")
+            .reads("/api/v1/categories", "/api/v1/products", "/api/v1/category-types")
+            .reads("/media")
+            .build();
+
+    private HttpServletRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        requests = new HttpServletRequest[]{
+                request("GET", "/api/v1/products"),
+                request("GET", "/api/v1/products/1042"),
+                request("GET", "/api/v1/products/1042/variants"),
+                request("GET", "/api/v1/category-types"),
+                request("GET", "/api/v1/categories/7"),
+                request("GET", "/media/blobs/4f1c2a9e8b7d.jpg"),
+                request("POST", "/api/v1/products"),
+                request("GET", "/api/v1/products/admin/all"),
+        };
+    }
+
+    @Benchmark
+    public void before(Blackhole blackhole) {
+        for (HttpServletRequest request : requests) {
+            boolean permitted = false;
+            if (LEGACY_CHAIN_MATCHER.matches(request)) {
+                for (RequestMatcher permitAll : LEGACY_PERMIT_ALL) {
+                    if (permitAll.matches(request)) {
+                        permitted = true;
+                        break;
+                    }
+                }
+            }
+            blackhole.consume(permitted);
+        }
+    }
+
+    @Benchmark
+    public void after(Blackhole blackhole) {
+        for (HttpServletRequest request : requests) {
+            blackhole.consume(matcher.matches(request));
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String servletPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+        request.setServletPath(servletPath);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PublicRequestMatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ashanhimantha.product_service.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublicRequestMatcherTest {
+
+    // Same rules as SecurityConfig
+    private final PublicRequestMatcher matcher = PublicRequestMatcher.builder()
+            .anyMethod("/swagger-ui", "/swagger-ui.html", "/v3/api-docs", "/api-docs", "/swagger-resources", "/webjars")
+            .anyMethod("/actuator/health", "/actuator/info")
+            .reads("/api/v1/categories", "/api/v1/products", "/api/v1/category-types")
+            .reads("/media")
+            .build();
+
+    @Test
+    void prefixesMatchOnSegmentBoundaries() {
+        assertThat(matches("GET", "/api/v1/products")).isTrue();
+        assertThat(matches("GET", "/api/v1/products/")).isTrue();
+        assertThat(matches("GET", "/api/v1/products/42/variants")).isTrue();
+        assertThat(matches("GET", "/api/v1/productsX")).isFalse();
+        assertThat(matches("GET", "/api/v1/product")).isFalse();
+        assertThat(matches("GET", "/api/v1/categories-export")).isFalse();
+        assertThat(matches("GET", "/actuator/healthz")).isFalse();
+        assertThat(matches("GET", "/actuator/health/liveness")).isTrue();
+        assertThat(matches("GET", "/swagger-ui.html")).isTrue();
+        assertThat(matches("GET", "/swagger-ui.htmlx")).isFalse();
+    }
+
+    @Test
+    void readRulesAllowOnlyGetAndHeadOutsideAdminPaths() {
+        assertThat(matches("GET", "/media/blobs/ab12.jpg")).isTrue();
+        assertThat(matches("HEAD", "/media/blobs/ab12.jpg")).isTrue();
+        assertThat(matches("POST", "/api/v1/products")).isFalse();
+        assertThat(matches("DELETE", "/api/v1/categories/3")).isFalse();
+        assertThat(matches("GET", "/api/v1/products/admin/all")).isFalse();
+        assertThat(matches("GET", "/api/v1/categories/admin")).isFalse();
+    }
+
+    @Test
+    void anyMethodRulesAllowWrites() {
+        assertThat(matches("POST", "/swagger-ui/index.html")).isTrue();
+        assertThat(matches("OPTIONS", "/v3/api-docs/public")).isTrue();
+    }
+
+    @Test
+    void pathsOutsideEveryRuleAreNotPublic() {
+        assertThat(matches("GET", "/")).isFalse();
+        assertThat(matches("GET", "")).isFalse();
+        assertThat(matches("GET", "/actuator/metrics")).isFalse();
+        assertThat(matches("GET", "/api/v2/products")).isFalse();
+        assertThat(matches("GET", "/api")).isFalse();
+        assertThat(matches("GET", "/mediaX/file.jpg")).isFalse();
+    }
+
+    @Test
+    void longestPrefixDecides() {
+        PublicRequestMatcher nested = PublicRequestMatcher.builder()
+                .reads("/api/v1")
+                .anyMethod("/api/v1/webhooks")
+                .build();
+
+        assertThat(nested.matches(request("POST", "/api/v1/webhooks/stripe"))).isTrue();
+        assertThat(nested.matches(request("POST", "/api/v1/orders"))).isFalse();
+        assertThat(nested.matches(request("GET", "/api/v1/orders"))).isTrue();
+    }
+
+    @Test
+    void builderRejectsPrefixesThatNameNoPath() {
+        assertThatThrownBy(() -> PublicRequestMatcher.builder().reads("/")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PublicRequestMatcher.builder().reads("api/v1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private boolean matches(String method, String servletPath) {
+        return matcher.matches(request(method, servletPath));
+    }
+
+    private static MockHttpServletRequest request(String method, String servletPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, servletPath);
+        request.setServletPath(servletPath);
+        return request;
+    }
+}
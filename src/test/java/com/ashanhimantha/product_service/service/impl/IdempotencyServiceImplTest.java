@@ -0,0 +1,171 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.ApiResponse;
+import com.ashanhimantha.product_service.exception.IdempotencyKeyConflictException;
+import com.ashanhimantha.product_service.service.IdempotencyService;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotency-Key claims: replay of completed requests, conflicts while one is in progress, release
+ * after a failure, per-client scoping and takeover of abandoned claims.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdempotencyServiceImpl.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // The claim commits before the action runs
+class IdempotencyServiceImplTest extends PostgresContainerTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void restore() {
+        ReflectionTestUtils.setField(idempotencyService, "inProgressTimeoutSeconds", 300L);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void completedRequestIsReplayedWithoutRunningAgain() {
+        String key = UUID.randomUUID().toString();
+
+        ResponseEntity<ApiResponse<String>> first = execute(key, "fp", created("product 1"));
+        ResponseEntity<ApiResponse<String>> retry = execute(key, "fp", created("product 2"));
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody().getData()).isEqualTo("product 1");
+    }
+
+    @Test
+    void withoutAKeyTheActionAlwaysRuns() {
+        execute(null, "fp", created("a"));
+        execute(" ", "fp", created("b"));
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        String key = UUID.randomUUID().toString();
+        execute(key, "fp-1", created("a"));
+
+        assertThatThrownBy(() -> execute(key, "fp-2", created("b"))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void retryWhileTheFirstRequestRunsIsAConflict() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<ApiResponse<String>>> first = CompletableFuture.supplyAsync(() ->
+                execute(key, "fp", blockingUntil(running, finish)));
+        assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> execute(key, "fp", created("b")))
+                .isInstanceOf(IdempotencyKeyConflictException.class)
+                .hasMessageContaining("still being processed");
+
+        finish.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(execute(key, "fp", created("c")).getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void failedRequestReleasesItsKey() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> execute(key, "fp", () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("Downstream failure");
+        })).isInstanceOf(IllegalStateException.class);
+        ResponseEntity<ApiResponse<String>> retry = execute(key, "fp", created("second try"));
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getBody().getData()).isEqualTo("second try");
+    }
+
+    @Test
+    void keysAreScopedPerClient() {
+        String key = UUID.randomUUID().toString();
+
+        for (String client : List.of("client-a", "client-b")) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated(client, null, List.of()));
+            assertThat(execute(key, "fp", created(client)).getBody().getData()).isEqualTo(client);
+        }
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverOnceItExpires() throws Exception {
+        String key = UUID.randomUUID().toString();
+        ReflectionTestUtils.setField(idempotencyService, "inProgressTimeoutSeconds", -1L); // Claims expire at once
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<ApiResponse<String>>> stuck = CompletableFuture.supplyAsync(() ->
+                execute(key, "fp", blockingUntil(running, finish)));
+        assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ResponseEntity<ApiResponse<String>> takeover = execute(key, "fp", created("takeover"));
+
+        assertThat(takeover.getBody().getData()).isEqualTo("takeover");
+        finish.countDown();
+        stuck.get(10, TimeUnit.SECONDS);
+        assertThat(executions).hasValue(2);
+    }
+
+    private ResponseEntity<ApiResponse<String>> execute(String key, String fingerprint,
+                                                         Supplier<ResponseEntity<ApiResponse<String>>> action) {
+        return idempotencyService.execute(key, fingerprint, String.class, action);
+    }
+
+    private Supplier<ResponseEntity<ApiResponse<String>>> created(String data) {
+        return () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Created", data));
+        };
+    }
+
+    private Supplier<ResponseEntity<ApiResponse<String>>> blockingUntil(CountDownLatch running, CountDownLatch finish) {
+        return () -> {
+            running.countDown();
+            try {
+                assertThat(finish.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return created("first").get();
+        };
+    }
+}
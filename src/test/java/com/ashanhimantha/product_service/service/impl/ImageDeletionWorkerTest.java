@@ -0,0 +1,173 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.entity.ImageDeletionTask;
+import com.ashanhimantha.product_service.repository.ImageDeletionTaskRepository;
+import com.ashanhimantha.product_service.repository.ImageObjectRepository;
+import com.ashanhimantha.product_service.support.InMemoryBlobStore;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Draining the image deletion queue: the reference count is re-checked under row locks, failed keys back
+ * off, and rows locked by another drainer are skipped rather than waited for.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ImageDeletionWorker.class, InMemoryBlobStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Locking is observed across transactions
+class ImageDeletionWorkerTest extends PostgresContainerTest {
+
+    @Autowired
+    private ImageDeletionWorker worker;
+
+    @Autowired
+    private InMemoryBlobStore blobStore;
+
+    @Autowired
+    private ImageDeletionTaskRepository imageDeletionTaskRepository;
+
+    @Autowired
+    private ImageObjectRepository imageObjectRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM image_deletion_queue");
+        jdbcTemplate.update("DELETE FROM image_objects");
+        blobStore.clear();
+    }
+
+    @Test
+    void deletesUnreferencedObjectsAndKeepsReferencedOnes() throws IOException {
+        store("unreferenced.jpg", 0);
+        store("referenced-again.jpg", 1);
+        store("untracked.jpg", -1);
+
+        worker.drain();
+
+        assertThat(blobStore.contains("unreferenced.jpg")).isFalse();
+        assertThat(blobStore.contains("untracked.jpg")).isFalse();
+        assertThat(blobStore.contains("referenced-again.jpg")).isTrue();
+        assertThat(imageDeletionTaskRepository.count()).isZero();
+        assertThat(imageObjectRepository.findById("unreferenced.jpg")).isEmpty();
+        assertThat(imageObjectRepository.findById("referenced-again.jpg")).isPresent();
+    }
+
+    @Test
+    void failedKeyStaysQueuedWithBackoff() throws IOException {
+        store("failing.jpg", 0);
+        blobStore.failingKeys().add("failing.jpg");
+        Instant before = Instant.now();
+
+        worker.drain();
+
+        ImageDeletionTask task = imageDeletionTaskRepository.findAll().get(0);
+        assertThat(task.getAttempts()).isEqualTo(1);
+        assertThat(task.getNextAttemptAt()).isAfter(before);
+        assertThat(task.getLastError()).isEqualTo("Simulated failure");
+        assertThat(imageObjectRepository.findById("failing.jpg")).isPresent();
+    }
+
+    @Test
+    void rowsLockedByAnotherDrainerAreSkipped() throws Exception {
+        store("locked.jpg", 0);
+        store("free.jpg", 0);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherDrainer = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT id FROM image_deletion_queue WHERE object_key = 'locked.jpg' FOR UPDATE");
+                    locked.countDown();
+                    await(release);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        worker.drain(); // Would block here without SKIP LOCKED
+
+        assertThat(blobStore.contains("free.jpg")).isFalse();
+        assertThat(blobStore.contains("locked.jpg")).isTrue();
+        release.countDown();
+        otherDrainer.get(10, TimeUnit.SECONDS);
+
+        worker.drain();
+        assertThat(blobStore.contains("locked.jpg")).isFalse();
+    }
+
+    @Test
+    void concurrentAcquireWaitsForTheDeleteAndThenUploadsAgain() throws Exception {
+        store("shared.jpg", 0);
+        AtomicReference<CompletableFuture<Integer>> acquire = new AtomicReference<>();
+        AtomicReference<Boolean> blockedDuringDelete = new AtomicReference<>();
+        blobStore.beforeDelete(() -> {
+            acquire.set(CompletableFuture.supplyAsync(() ->
+                    imageObjectRepository.acquire("shared.jpg", "hash", "image/jpeg", 3)));
+            try {
+                acquire.get().get(300, TimeUnit.MILLISECONDS);
+                blockedDuringDelete.set(false);
+            } catch (TimeoutException e) {
+                blockedDuringDelete.set(true);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        worker.drain();
+
+        assertThat(blockedDuringDelete.get()).isTrue();
+        // The row was gone by the time the acquire ran, so the caller is told to upload the object again
+        assertThat(acquire.get().get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(blobStore.contains("shared.jpg")).isFalse();
+    }
+
+    /**
+     * Put an object in the store and queue it for deletion, tracked with the given reference count (-1: untracked)
+     */
+    private void store(String key, int refCount) throws IOException {
+        blobStore.put(key, new ByteArrayInputStream(new byte[]{1, 2, 3}), 3, "image/jpeg");
+        if (refCount >= 0) {
+            imageObjectRepository.acquire(key, "hash", "image/jpeg", 3);
+            for (int i = 1; i > refCount; i--) {
+                imageObjectRepository.release(key);
+            }
+        }
+        ImageDeletionTask task = new ImageDeletionTask();
+        task.setObjectKey(key);
+        task.setNextAttemptAt(Instant.now().minusSeconds(1));
+        imageDeletionTaskRepository.save(task);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.bulkhead.Bulkheads;
+import com.ashanhimantha.product_service.entity.ImageObject;
+import com.ashanhimantha.product_service.repository.ImageDeletionTaskRepository;
+import com.ashanhimantha.product_service.repository.ImageObjectRepository;
+import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.storage.ImageInspector;
+import com.ashanhimantha.product_service.storage.UploadedImage;
+import com.ashanhimantha.product_service.support.InMemoryBlobStore;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reference counting of content-addressed images: identical uploads share one object, deletes drop one
+ * reference each and only the last one queues the object, and references follow the caller's transaction,
+ * with objects stored under a rolled-back one queued for deletion.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ImageUploadServiceImpl.class, InMemoryBlobStore.class, Bulkheads.class, ImageInspector.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each call commits on its own unless wrapped
+class ImageUploadServiceImplTest extends PostgresContainerTest {
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private InMemoryBlobStore blobStore;
+
+    @Autowired
+    private ImageObjectRepository imageObjectRepository;
+
+    @Autowired
+    private ImageDeletionTaskRepository imageDeletionTaskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM image_deletion_queue");
+        jdbcTemplate.update("DELETE FROM image_objects");
+        blobStore.clear();
+    }
+
+    @Test
+    void identicalUploadsShareOneReferenceCountedObject() throws IOException {
+        byte[] png = png(0x336699);
+
+        UploadedImage first = imageUploadService.uploadImage(file(png), "products/", "product_1");
+        UploadedImage second = imageUploadService.uploadImage(file(png), "products/", "product_2");
+
+        assertThat(second.getUrl()).isEqualTo(first.getUrl());
+        assertThat(imageObjectRepository.findById(keyOf(png))).get().extracting(ImageObject::getRefCount).isEqualTo(2);
+        assertThat(blobStore.contains(keyOf(png))).isTrue();
+    }
+
+    @Test
+    void onlyTheLastReleaseQueuesTheObject() throws IOException {
+        byte[] png = png(0x993366);
+        String url = imageUploadService.uploadImage(file(png), "products/", "product_1").getUrl();
+        imageUploadService.uploadImage(file(png), "products/", "product_2");
+
+        imageUploadService.deleteImage(url);
+        assertThat(imageObjectRepository.findById(keyOf(png))).get().extracting(ImageObject::getRefCount).isEqualTo(1);
+        assertThat(imageDeletionTaskRepository.count()).isZero();
+
+        imageUploadService.deleteImage(url);
+        assertThat(imageObjectRepository.findById(keyOf(png))).get().extracting(ImageObject::getRefCount).isEqualTo(0);
+        assertThat(imageDeletionTaskRepository.findAll()).singleElement()
+                .satisfies(task -> assertThat(task.getObjectKey()).isEqualTo(keyOf(png)));
+
+        imageUploadService.deleteImage(url); // A stray extra delete does not go negative
+        assertThat(imageObjectRepository.findById(keyOf(png))).get().extracting(ImageObject::getRefCount).isEqualTo(0);
+    }
+
+    @Test
+    void failedStoreGivesTheReferenceBack() throws IOException {
+        byte[] png = png(0x669933);
+        blobStore.failingKeys().add(keyOf(png));
+
+        assertThatThrownBy(() -> imageUploadService.uploadImage(file(png), "products/", "product_1"))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(imageObjectRepository.findById(keyOf(png))).get().extracting(ImageObject::getRefCount).isEqualTo(0);
+    }
+
+    @Test
+    void objectStoredUnderARolledBackTransactionIsQueued() throws IOException {
+        byte[] png = png(0x123456);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            imageUploadService.uploadImage(file(png), "products/", "product_1");
+            status.setRollbackOnly();
+        });
+
+        assertThat(imageObjectRepository.findById(keyOf(png))).get().extracting(ImageObject::getRefCount).isEqualTo(0);
+        assertThat(imageDeletionTaskRepository.findAll()).singleElement()
+                .satisfies(task -> assertThat(task.getObjectKey()).isEqualTo(keyOf(png)));
+    }
+
+    @Test
+    void rollbackKeepsAnObjectThatIsStillReferenced() throws IOException {
+        byte[] png = png(0x654321);
+        imageUploadService.uploadImage(file(png), "products/", "product_1");
+        blobStore.clear(); // Stored again by the next upload, as if the first store had been lost
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            imageUploadService.uploadImage(file(png), "products/", "product_2");
+            status.setRollbackOnly();
+        });
+
+        assertThat(imageObjectRepository.findById(keyOf(png))).get().extracting(ImageObject::getRefCount).isEqualTo(1);
+        assertThat(imageDeletionTaskRepository.count()).isZero();
+        assertThat(blobStore.contains(keyOf(png))).isTrue();
+    }
+
+    @Test
+    void concurrentAcquiresCountEveryReferenceAndCreateTheRowOnce() throws Exception {
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Integer> counts = new ArrayList<>();
+        try {
+            List<Future<List<Integer>>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    List<Integer> seen = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        seen.add(imageObjectRepository.acquire("blobs/concurrent.png", "hash", "image/png", 3));
+                    }
+                    return seen;
+                }));
+            }
+            for (Future<List<Integer>> worker : workers) {
+                counts.addAll(worker.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Each acquire saw a distinct count, so exactly one caller was told to upload
+        assertThat(counts).doesNotHaveDuplicates().hasSize(threads * perThread).contains(1, threads * perThread);
+        assertThat(imageObjectRepository.release("blobs/concurrent.png")).isEqualTo(threads * perThread - 1);
+        assertThat(imageObjectRepository.release("blobs/untracked.png")).isNull();
+    }
+
+    private MockMultipartFile file(byte[] content) {
+        return new MockMultipartFile("file", "image.png", "image/png", content);
+    }
+
+    private static byte[] png(int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(4, 3, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, rgb);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static String keyOf(byte[] content) {
+        try {
+            return "blobs/" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)) + ".png";
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.ChangeEventMessage;
+import com.ashanhimantha.product_service.entity.OutboxEvent;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+import com.ashanhimantha.product_service.mapper.OutboxEventMapper;
+import com.ashanhimantha.product_service.mapper.OutboxEventMapperImpl;
+import com.ashanhimantha.product_service.repository.OutboxEventRepository;
+import com.ashanhimantha.product_service.service.OutboxEventSink;
+import com.ashanhimantha.product_service.service.OutboxService;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Outbox writes join the caller's transaction; the relay publishes in id order under a lease held by one
+ * instance, with no transaction open during the publish.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OutboxServiceImpl.class, OutboxEventMapperImpl.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // The relay runs its own transactions
+class OutboxRelayTest extends PostgresContainerTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxEventMapper outboxEventMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RecordingSink sink = new RecordingSink();
+
+    @BeforeEach
+    void clearOutbox() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("UPDATE outbox_relay_lease SET owner = NULL, lease_until = '-infinity'");
+    }
+
+    @Test
+    void recordingOutsideATransactionFails() {
+        assertThatThrownBy(() -> outboxService.recordDeletion(ChangeEventType.PRODUCT_DELETED, 1L))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void eventsCommitWithTheirTransactionOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> outboxService.recordDeletion(ChangeEventType.PRODUCT_DELETED, 1L));
+        transaction.executeWithoutResult(status -> {
+            outboxService.recordDeletion(ChangeEventType.PRODUCT_DELETED, 2L);
+            status.setRollbackOnly();
+        });
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertThat(events).extracting(OutboxEvent::getAggregateId).containsExactly(1L);
+        assertThat(events.get(0).getTxid()).isPositive();
+        assertThat(events.get(0).getPublishedAt()).isNull();
+    }
+
+    @Test
+    void relayPublishesInIdOrderOutsideATransactionAndMarksThemPublished() {
+        record(1L, 2L, 3L);
+        OutboxRelay relay = relay(2);
+
+        relay.relay();
+        relay.relay();
+        relay.relay();
+
+        assertThat(sink.batches).extracting(batch -> batch.stream().map(ChangeEventMessage::getAggregateId).toList())
+                .containsExactly(List.of(1L, 2L), List.of(3L));
+        assertThat(sink.publishedInTransaction).isFalse();
+        assertThat(outboxEventRepository.findAll()).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+    }
+
+    @Test
+    void failedBatchStaysUnpublishedAndIsRetriedWhole() {
+        record(1L, 2L);
+        OutboxRelay relay = relay(10);
+        sink.failNext = true;
+
+        relay.relay();
+        relay.relay();
+
+        assertThat(sink.batches).extracting(List::size).containsExactly(2, 2);
+        assertThat(outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Pageable.unpaged())).isEmpty();
+    }
+
+    @Test
+    void onlyTheLeaseHolderRelays() {
+        record(1L);
+        OutboxRelay leader = relay(10);
+        OutboxRelay follower = relay(10);
+
+        leader.relay();
+        record(2L);
+        follower.relay();
+
+        assertThat(sink.batches).hasSize(1);
+
+        jdbcTemplate.update("UPDATE outbox_relay_lease SET lease_until = now() - interval '1 second'"); // Leader gone
+        follower.relay();
+
+        assertThat(sink.batches).hasSize(2);
+        assertThat(sink.batches.get(1)).extracting(ChangeEventMessage::getAggregateId).containsExactly(2L);
+    }
+
+    private void record(Long... aggregateIds) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Long aggregateId : aggregateIds) {
+                outboxService.recordDeletion(ChangeEventType.PRODUCT_DELETED, aggregateId);
+            }
+        });
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, outboxEventMapper, sink, transactionManager);
+        ReflectionTestUtils.setField(relay, "batchSize", batchSize);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 60L);
+        return relay;
+    }
+
+    private static class RecordingSink implements OutboxEventSink {
+
+        private final List<List<ChangeEventMessage>> batches = new ArrayList<>();
+        private boolean publishedInTransaction;
+        private boolean failNext;
+
+        @Override
+        public void publish(List<ChangeEventMessage> events) {
+            batches.add(events);
+            publishedInTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("Sink unavailable");
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.response.ChangeFeedResponse;
+import com.ashanhimantha.product_service.dto.response.ProductChangeResponse;
+import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.Product;
+import com.ashanhimantha.product_service.entity.enums.ChangeEventType;
+import com.ashanhimantha.product_service.entity.enums.Status;
+import com.ashanhimantha.product_service.exception.ChangeTokenExpiredException;
+import com.ashanhimantha.product_service.exception.GlobalExceptionHandler;
+import com.ashanhimantha.product_service.mapper.CategoryMapperImpl;
+import com.ashanhimantha.product_service.mapper.CategoryTypeMapperImpl;
+import com.ashanhimantha.product_service.mapper.ProductMapperImpl;
+import com.ashanhimantha.product_service.repository.CategoryRepository;
+import com.ashanhimantha.product_service.repository.ProductRepository;
+import com.ashanhimantha.product_service.service.CategoryService;
+import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.service.OutboxService;
+import com.ashanhimantha.product_service.service.ProductService;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Change feed paging by "txid:id" tokens: commit order, holding back transactions that are still
+ * running, legacy id-only tokens and 410 for tokens older than the retained history.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductServiceImpl.class, OutboxServiceImpl.class, SkuGeneratorImpl.class, ProductMapperImpl.class,
+        CategoryMapperImpl.class, CategoryTypeMapperImpl.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Only committed transactions reach the feed
+class ProductChangeFeedTest extends PostgresContainerTest {
+
+    @MockBean
+    private CategoryService categoryService;
+
+    @MockBean
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        category = new Category();
+        category.setName("Feed category " + System.nanoTime());
+        categoryRepository.save(category);
+    }
+
+    @Test
+    void feedCollapsesToTheLatestChangePerProductInCommitOrder() {
+        Product first = createProduct("First");
+        Product second = createProduct("Second");
+        recordChange(first, ChangeEventType.PRODUCT_UPDATED);
+
+        ChangeFeedResponse page = productService.getProductChanges(null, 10);
+
+        assertThat(page.getChanges()).extracting(ProductChangeResponse::getProductId)
+                .containsExactly(second.getId(), first.getId());
+        assertThat(page.getChanges()).extracting(ProductChangeResponse::getOperation)
+                .containsOnly(ProductChangeResponse.Operation.UPSERT);
+        assertThat(page.getNextToken()).matches("\\d+:\\d+");
+        assertThat(page.isHasMore()).isFalse();
+
+        ChangeFeedResponse caughtUp = productService.getProductChanges(page.getNextToken(), 10);
+        assertThat(caughtUp.getChanges()).isEmpty();
+        assertThat(caughtUp.getNextToken()).isEqualTo(page.getNextToken());
+    }
+
+    @Test
+    void nextTokenPagesThroughTheHistory() {
+        Product first = createProduct("First");
+        Product second = createProduct("Second");
+
+        ChangeFeedResponse firstPage = productService.getProductChanges(null, 1);
+        ChangeFeedResponse secondPage = productService.getProductChanges(firstPage.getNextToken(), 1);
+
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(firstPage.getChanges()).extracting(ProductChangeResponse::getProductId).containsExactly(first.getId());
+        assertThat(secondPage.getChanges()).extracting(ProductChangeResponse::getProductId).containsExactly(second.getId());
+    }
+
+    @Test
+    void inactiveProductIsATombstone() {
+        Product product = createProduct("Retired");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Product loaded = productRepository.findById(product.getId()).orElseThrow();
+            loaded.setStatus(Status.INACTIVE);
+            outboxService.recordProductChange(loaded, ChangeEventType.PRODUCT_UPDATED);
+        });
+
+        ChangeFeedResponse page = productService.getProductChanges(null, 10);
+
+        assertThat(page.getChanges()).singleElement().satisfies(change -> {
+            assertThat(change.getOperation()).isEqualTo(ProductChangeResponse.Operation.TOMBSTONE);
+            assertThat(change.getProduct()).isNull();
+        });
+    }
+
+    @Test
+    void runningTransactionHoldsBackEverythingCommittedAfterIt() throws Exception {
+        Product early = createProduct("Early");
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> longTransaction = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    recordChangeInCurrentTransaction(early);
+                    written.countDown();
+                    await(commit);
+                }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        Product late = createProduct("Late"); // Commits first, with the higher txid
+
+        String token = productService.getProductChanges(null, 10).getNextToken();
+        ChangeFeedResponse heldBack = productService.getProductChanges(token, 10);
+        commit.countDown();
+        longTransaction.get(10, TimeUnit.SECONDS);
+        ChangeFeedResponse released = productService.getProductChanges(token, 10);
+
+        assertThat(heldBack.getChanges()).isEmpty();
+        assertThat(released.getChanges()).extracting(ProductChangeResponse::getProductId)
+                .containsExactly(early.getId(), late.getId());
+    }
+
+    @Test
+    void bareIdTokenReadsAsPreTransactionHistory() {
+        Product first = createProduct("Legacy first");
+        Product second = createProduct("Legacy second");
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        long firstLegacyId = recordLegacyChange(first);
+        recordLegacyChange(second);
+        Product current = createProduct("Current");
+
+        ChangeFeedResponse page = productService.getProductChanges(String.valueOf(firstLegacyId), 10);
+
+        assertThat(page.getChanges()).extracting(ProductChangeResponse::getProductId)
+                .containsExactly(second.getId(), current.getId());
+    }
+
+    @Test
+    void tokenBeforeTheRetainedHistoryIsGone() {
+        createProduct("Retained");
+
+        assertThatThrownBy(() -> productService.getProductChanges("1:1", 10))
+                .isInstanceOf(ChangeTokenExpiredException.class)
+                .satisfies(e -> assertThat(new GlobalExceptionHandler()
+                        .handleChangeTokenExpired((ChangeTokenExpiredException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.GONE));
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThatThrownBy(() -> productService.getProductChanges("abc:1", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getProductChanges("-1:5", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Product createProduct(String name) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Product product = new Product();
+            product.setName(name);
+            product.setStatus(Status.ACTIVE);
+            product.setCategory(category);
+            Product saved = productRepository.save(product);
+            outboxService.recordProductChange(saved, ChangeEventType.PRODUCT_CREATED);
+            return saved;
+        });
+    }
+
+    private void recordChange(Product product, ChangeEventType eventType) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxService.recordProductChange(productRepository.findById(product.getId()).orElseThrow(), eventType));
+    }
+
+    private void recordChangeInCurrentTransaction(Product product) {
+        outboxService.recordProductChange(productRepository.findById(product.getId()).orElseThrow(), ChangeEventType.PRODUCT_UPDATED);
+        productRepository.flush(); // The insert takes the transaction id
+    }
+
+    // An event from before the txid column: migrated history has txid 0
+    private long recordLegacyChange(Product product) {
+        Long id = jdbcTemplate.queryForObject("SELECT nextval('outbox_events_seq')", Long.class);
+        jdbcTemplate.update("INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, created_at, txid) "
+                + "VALUES (?, 'PRODUCT', ?, 'PRODUCT_CREATED', '{}', now(), 0)", id, product.getId());
+        return id;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.bulkhead.Bulkheads;
+import com.ashanhimantha.product_service.dto.request.ProductRequest;
+import com.ashanhimantha.product_service.dto.response.AdminProductResponse;
+import com.ashanhimantha.product_service.entity.ImageObject;
+import com.ashanhimantha.product_service.entity.ProductCreationJob;
+import com.ashanhimantha.product_service.entity.enums.JobStatus;
+import com.ashanhimantha.product_service.repository.ImageDeletionTaskRepository;
+import com.ashanhimantha.product_service.repository.ImageObjectRepository;
+import com.ashanhimantha.product_service.repository.ProductCreationJobRepository;
+import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.service.ProductCreationJobService;
+import com.ashanhimantha.product_service.service.ProductService;
+import com.ashanhimantha.product_service.storage.ImageInspector;
+import com.ashanhimantha.product_service.storage.JobStagingArea;
+import com.ashanhimantha.product_service.support.InMemoryBlobStore;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Background product creation: lease-based claims, retry and failure of attempts, and rollback of an
+ * attempt that outlives its lease. ProductService is mocked; the jobs, staging area and image references
+ * are real, so a job runs end to end on the worker pool.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductCreationJobServiceImpl.class, JobStagingArea.class, InMemoryBlobStore.class, JacksonAutoConfiguration.class,
+        ImageUploadServiceImpl.class, Bulkheads.class, ImageInspector.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Workers run on their own threads and commit
+class ProductCreationJobServiceImplTest extends PostgresContainerTest {
+
+    @Autowired
+    private ProductCreationJobService jobService;
+
+    @Autowired
+    private ProductCreationJobRepository jobRepository;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private ImageObjectRepository imageObjectRepository;
+
+    @Autowired
+    private ImageDeletionTaskRepository imageDeletionTaskRepository;
+
+    @Autowired
+    private InMemoryBlobStore blobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ProductService productService;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM product_creation_jobs");
+        jdbcTemplate.update("DELETE FROM image_deletion_queue");
+        jdbcTemplate.update("DELETE FROM image_objects");
+        blobStore.clear();
+    }
+
+    @Test
+    void claimIsExclusiveUntilTheLeaseExpires() {
+        Long jobId = queuedJob(Instant.now().plusSeconds(60)).getId();
+        Instant now = Instant.now();
+
+        assertThat(jobRepository.claim(jobId, now, now.plusSeconds(30))).isEqualTo(1);
+        assertThat(jobRepository.claim(jobId, now.plusSeconds(10), now.plusSeconds(40))).isZero();
+
+        // Once the lease has run out another worker takes over, and the first attempt can no longer finish
+        assertThat(jobRepository.claim(jobId, now.plusSeconds(31), now.plusSeconds(61))).isEqualTo(1);
+        assertThat(jobRepository.markSucceeded(jobId, 1, 7L, now)).isZero();
+        assertThat(jobRepository.requeue(jobId, 1, "stale", now)).isZero();
+        assertThat(jobRepository.markSucceeded(jobId, 2, 7L, now)).isEqualTo(1);
+
+        assertThat(jobRepository.claim(jobId, now.plusSeconds(3600), now.plusSeconds(3660))).isZero();
+        assertThat(jobRepository.findCurrent(jobId)).get().satisfies(job -> {
+            assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+            assertThat(job.getAttempts()).isEqualTo(2);
+            assertThat(job.getProductId()).isEqualTo(7L);
+        });
+    }
+
+    @Test
+    void resumableJobsAreDueQueuedOnesAndExpiredLeases() {
+        Instant now = Instant.now();
+        Long due = queuedJob(now.minusSeconds(5)).getId();
+        Long notYetDue = queuedJob(now.plusSeconds(60)).getId();
+        Long expiredLease = queuedJob(now.minusSeconds(60)).getId();
+        Long liveLease = queuedJob(now.minusSeconds(60)).getId();
+        jobRepository.claim(expiredLease, now.minusSeconds(60), now.minusSeconds(1));
+        jobRepository.claim(liveLease, now, now.plusSeconds(60));
+
+        assertThat(jobRepository.findResumable(now, 10)).containsExactly(due, expiredLease);
+        assertThat(jobRepository.findResumable(now, 1)).containsExactly(due);
+        assertThat(jobRepository.findResumable(now, 10)).doesNotContain(notYetDue, liveLease);
+    }
+
+    @Test
+    void submittedJobCreatesTheProductAndDropsItsStagedImages() throws IOException {
+        when(productService.createProduct(any(), anyList())).thenReturn(product(42L));
+
+        Long jobId = jobService.submit(new ProductRequest(), List.of(file(png(0x336699)))).getJobId();
+
+        ProductCreationJob job = awaitJob(jobId, j -> j.getStatus() == JobStatus.SUCCEEDED);
+        assertThat(job.getProductId()).isEqualTo(42L);
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(blobStore.list("jobs/staging/")).isEmpty();
+        verify(productService, times(1)).createProduct(any(), anyList());
+    }
+
+    @Test
+    void transientFailureIsRequeuedWithBackoff() throws IOException {
+        when(productService.createProduct(any(), anyList())).thenThrow(new IllegalStateException("Storage unavailable"));
+        Instant submitted = Instant.now();
+
+        Long jobId = jobService.submit(new ProductRequest(), List.of(file(png(0x993366)))).getJobId();
+
+        ProductCreationJob job = awaitJob(jobId, j -> j.getStatus() == JobStatus.QUEUED && j.getAttempts() == 1);
+        assertThat(job.getLastError()).isEqualTo("Storage unavailable");
+        assertThat(job.getAvailableAt()).isAfter(submitted.plusSeconds(5)); // initial-backoff-ms defaults to 10s
+        assertThat(blobStore.list("jobs/staging/")).isNotEmpty(); // Kept for the next attempt
+    }
+
+    @Test
+    void permanentFailureFailsTheJobAtOnce() throws IOException {
+        when(productService.createProduct(any(), anyList())).thenThrow(new IllegalArgumentException("Unknown category"));
+
+        Long jobId = jobService.submit(new ProductRequest(), List.of(file(png(0x669933)))).getJobId();
+
+        ProductCreationJob job = awaitJob(jobId, j -> j.getStatus() == JobStatus.FAILED);
+        assertThat(job.getLastError()).isEqualTo("Unknown category");
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(blobStore.list("jobs/staging/")).isEmpty();
+    }
+
+    @Test
+    void attemptThatLosesItsLeaseIsRolledBackAndItsImagesQueued() throws IOException {
+        byte[] png = png(0x123456);
+        String[] uploadedUrl = new String[1];
+        when(productService.createProduct(any(), anyList())).thenAnswer(invocation -> {
+            List<MultipartFile> files = invocation.getArgument(1);
+            uploadedUrl[0] = imageUploadService.uploadImage(files.get(0), "products/", "product_7").getUrl();
+            // Another worker claims the job as if this attempt's lease had run out; on its own thread, so it commits
+            Long jobId = jobRepository.findAll().get(0).getId();
+            Instant later = Instant.now().plus(Duration.ofHours(1));
+            assertThat(CompletableFuture.supplyAsync(() -> jobRepository.claim(jobId, later, later.plusSeconds(600))).get())
+                    .isEqualTo(1);
+            return product(7L);
+        });
+
+        Long jobId = jobService.submit(new ProductRequest(), List.of(file(png))).getJobId();
+
+        await(() -> imageDeletionTaskRepository.count() == 1);
+        String objectKey = imageUploadService.extractObjectKey(uploadedUrl[0]);
+        assertThat(imageDeletionTaskRepository.findAll()).singleElement()
+                .satisfies(task -> assertThat(task.getObjectKey()).isEqualTo(objectKey));
+        assertThat(imageObjectRepository.findById(objectKey)).get().extracting(ImageObject::getRefCount).isEqualTo(0);
+        assertThat(jobRepository.findCurrent(jobId)).get().satisfies(job -> {
+            assertThat(job.getStatus()).isEqualTo(JobStatus.RUNNING); // Owned by the attempt that took over
+            assertThat(job.getAttempts()).isEqualTo(2);
+            assertThat(job.getProductId()).isNull();
+        });
+        assertThat(blobStore.list("jobs/staging/")).isNotEmpty();
+    }
+
+    private ProductCreationJob queuedJob(Instant availableAt) {
+        ProductCreationJob job = new ProductCreationJob();
+        job.setStatus(JobStatus.QUEUED);
+        job.setRequestPayload("{}");
+        job.setStagingKey("staging");
+        job.setStagedFiles("[]");
+        job.setAvailableAt(availableAt);
+        return jobRepository.save(job);
+    }
+
+    private ProductCreationJob awaitJob(Long jobId, Predicate<ProductCreationJob> condition) {
+        await(() -> jobRepository.findCurrent(jobId).filter(condition).isPresent());
+        return jobRepository.findCurrent(jobId).orElseThrow();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plusSeconds(10);
+        while (!condition.getAsBoolean()) {
+            if (Instant.now().isAfter(deadline)) {
+                fail("Timed out waiting for the product job");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static AdminProductResponse product(Long id) {
+        AdminProductResponse response = new AdminProductResponse();
+        response.setId(id);
+        return response;
+    }
+
+    private static MockMultipartFile file(byte[] content) {
+        return new MockMultipartFile("file", "image.png", "image/png", content);
+    }
+
+    private static byte[] png(int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(4, 3, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, rgb);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
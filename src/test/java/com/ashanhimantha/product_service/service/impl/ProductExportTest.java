@@ -0,0 +1,120 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.Product;
+import com.ashanhimantha.product_service.entity.ProductVariant;
+import com.ashanhimantha.product_service.entity.enums.Status;
+import com.ashanhimantha.product_service.mapper.CategoryMapperImpl;
+import com.ashanhimantha.product_service.mapper.CategoryTypeMapperImpl;
+import com.ashanhimantha.product_service.mapper.ProductMapperImpl;
+import com.ashanhimantha.product_service.repository.CategoryRepository;
+import com.ashanhimantha.product_service.repository.ProductRepository;
+import com.ashanhimantha.product_service.service.CategoryService;
+import com.ashanhimantha.product_service.service.ImageUploadService;
+import com.ashanhimantha.product_service.service.ProductService;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The NDJSON export writes every active product exactly once, one JSON document per line in id order,
+ * across more than one chunk of the stream.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductServiceImpl.class, OutboxServiceImpl.class, SkuGeneratorImpl.class, ProductMapperImpl.class,
+        CategoryMapperImpl.class, CategoryTypeMapperImpl.class, JacksonAutoConfiguration.class})
+class ProductExportTest extends PostgresContainerTest {
+
+    private static final int ACTIVE = 501; // One more than EXPORT_CHUNK_SIZE
+
+    @MockBean
+    private CategoryService categoryService;
+
+    @MockBean
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportWritesEachActiveProductOnItsOwnLine() throws Exception {
+        Category category = new Category();
+        category.setName("Export category " + System.nanoTime());
+        categoryRepository.save(category);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ACTIVE + 2; i++) {
+            products.add(product(category, "Export " + i, i < ACTIVE ? Status.ACTIVE : Status.INACTIVE));
+        }
+        List<Product> saved = productRepository.saveAll(products);
+        entityManager.flush();
+        entityManager.clear();
+        Set<Long> inactiveIds = saved.subList(ACTIVE, ACTIVE + 2).stream().map(Product::getId).collect(Collectors.toSet());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productService.exportActiveProductsForPublic(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode product = objectMapper.readTree(line);
+            ids.add(product.get("id").asLong());
+            if (product.get("name").asText().equals("Export 0")) {
+                assertThat(product.get("variants")).hasSize(1);
+            }
+        }
+        Integer activeInDatabase = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE status = 'ACTIVE'", Integer.class);
+        assertThat(ids).hasSize(activeInDatabase).isSorted().doesNotHaveDuplicates().doesNotContainAnyElementsOf(inactiveIds);
+        assertThat(ids).containsAll(saved.subList(0, ACTIVE).stream().map(Product::getId).toList());
+    }
+
+    private Product product(Category category, String name, Status status) {
+        Product product = new Product();
+        product.setName(name);
+        product.setStatus(status);
+        product.setCategory(category);
+        ProductVariant variant = new ProductVariant();
+        variant.setProduct(product);
+        variant.setSize("M");
+        variant.setUnitCost(10.0);
+        variant.setSellingPrice(20.0);
+        variant.setQuantity(3);
+        product.getVariants().add(variant);
+        product.recalculateVariantAggregates();
+        return product;
+    }
+}
@@ -0,0 +1,132 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.dto.request.BulkVariantRequest;
+import com.ashanhimantha.product_service.dto.response.BulkVariantResponse;
+import com.ashanhimantha.product_service.dto.response.BulkVariantRowError;
+import com.ashanhimantha.product_service.dto.response.ProductVariantResponse;
+import com.ashanhimantha.product_service.entity.Category;
+import com.ashanhimantha.product_service.entity.CategoryType;
+import com.ashanhimantha.product_service.entity.Product;
+import com.ashanhimantha.product_service.entity.enums.Status;
+import com.ashanhimantha.product_service.repository.CategoryRepository;
+import com.ashanhimantha.product_service.repository.CategoryTypeRepository;
+import com.ashanhimantha.product_service.repository.ProductRepository;
+import com.ashanhimantha.product_service.service.ProductVariantService;
+import com.ashanhimantha.product_service.support.PostgresContainerTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Bulk variant creation: the color x size matrix, duplicate detection and per-row size validation.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductVariantServiceImpl.class, OutboxServiceImpl.class, SkuGeneratorImpl.class, JacksonAutoConfiguration.class})
+class ProductVariantServiceImplTest extends PostgresContainerTest {
+
+    @Autowired
+    private ProductVariantService productVariantService;
+
+    @Autowired
+    private CategoryTypeRepository categoryTypeRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void createsEveryColorSizeCombination() {
+        Product product = product("S,M,L");
+
+        BulkVariantResponse response = productVariantService.createVariants(product.getId(),
+                request(List.of("Red", "Blue"), List.of("S", "M")));
+
+        assertThat(response.getRequested()).isEqualTo(4);
+        assertThat(response.getErrors()).isEmpty();
+        assertThat(response.getCreated())
+                .extracting(ProductVariantResponse::getColor, ProductVariantResponse::getSize)
+                .containsExactly(tuple("Red", "S"), tuple("Red", "M"), tuple("Blue", "S"), tuple("Blue", "M"));
+        assertThat(response.getCreated()).extracting(ProductVariantResponse::getSku).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void sizesOutsideTheCategoryTypeAreRejectedPerRow() {
+        Product product = product("S, M, L");
+
+        BulkVariantResponse response = productVariantService.createVariants(product.getId(),
+                request(null, List.of("M", "XL", "L")));
+
+        assertThat(response.getCreated()).extracting(ProductVariantResponse::getSize).containsExactly("M", "L");
+        assertThat(response.getErrors())
+                .extracting(BulkVariantRowError::getColor, BulkVariantRowError::getSize)
+                .containsExactly(tuple(null, "XL"));
+    }
+
+    @Test
+    void existingAndRepeatedCombinationsAreRejectedPerRow() {
+        Product product = product("S,M,L");
+        productVariantService.createVariants(product.getId(), request(List.of("Red"), List.of("S")));
+        productVariantService.createVariants(product.getId(), request(null, List.of("M")));
+
+        BulkVariantResponse response = productVariantService.createVariants(product.getId(),
+                request(List.of("Red"), List.of("S", "L", "L")));
+        BulkVariantResponse colorless = productVariantService.createVariants(product.getId(), request(null, List.of("M")));
+
+        assertThat(response.getCreated()).extracting(ProductVariantResponse::getSize).containsExactly("L");
+        assertThat(response.getErrors())
+                .extracting(BulkVariantRowError::getColor, BulkVariantRowError::getSize)
+                .containsExactly(tuple("Red", "S"), tuple("Red", "L"));
+        // A null color never violates the unique constraint; only the in-service check catches this one
+        assertThat(colorless.getCreated()).isEmpty();
+        assertThat(colorless.getErrors()).hasSize(1);
+    }
+
+    @Test
+    void categoryTypeWithoutSizeOptionsAllowsAnySize() {
+        Product product = product("");
+
+        BulkVariantResponse response = productVariantService.createVariants(product.getId(),
+                request(null, List.of("38", "40")));
+
+        assertThat(response.getErrors()).isEmpty();
+        assertThat(response.getCreated()).extracting(ProductVariantResponse::getSize).containsExactly("38", "40");
+    }
+
+    private Product product(String sizeOptions) {
+        CategoryType type = new CategoryType();
+        type.setName("Bulk sizes " + System.nanoTime());
+        type.setSizeOptions(sizeOptions);
+        categoryTypeRepository.save(type);
+        Category category = new Category();
+        category.setName("Bulk category " + System.nanoTime());
+        category.setCategoryType(type);
+        categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Bulk product");
+        product.setStatus(Status.ACTIVE);
+        product.setCategory(category);
+        return productRepository.saveAndFlush(product);
+    }
+
+    private BulkVariantRequest request(List<String> colors, List<String> sizes) {
+        BulkVariantRequest request = new BulkVariantRequest();
+        request.setColors(colors);
+        request.setSizes(sizes);
+        request.setUnitCost(10.0);
+        request.setSellingPrice(20.0);
+        request.setQuantity(5);
+        return request;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.support.SequenceJdbcTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SKU generation throughput, single-threaded and under contention. The sequence is stubbed, so this
+ * measures the in-memory path (formatting plus the synchronized block hand-out), not the round trip
+ * taken once per block. Run main() from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkuGeneratorBenchmark {
+
+    private SkuGeneratorImpl generator;
+
+    @Setup
+    public void setUp() {
+        generator = new SkuGeneratorImpl(new SequenceJdbcTemplate(100));
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generate("Classic T-Shirt", "Navy", "XL");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateContended() {
+        return generator.generate("Classic T-Shirt", "Navy", "XL");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SkuGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ashanhimantha.product_service.service.impl;
+
+import com.ashanhimantha.product_service.support.SequenceJdbcTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+class SkuGeneratorImplTest {
+
+    private static final int BLOCK_SIZE = 100; // INCREMENT BY of product_variant_sku_seq
+    private static final String SKU_PREFIX = "TSHI-RED-XL-";
+
+    @Test
+    void concurrentCallersNeverReceiveTheSameSku() throws Exception {
+        int threads = 16;
+        int perThread = 125_000; // Two million SKUs, 20,000 sequence blocks
+        SequenceJdbcTemplate sequence = new SequenceJdbcTemplate(BLOCK_SIZE);
+        SkuGeneratorImpl generator = new SkuGeneratorImpl(sequence);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<long[]> suffixes = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    long[] generated = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        // Same name, color and size everywhere: only the numeric suffix can tell them apart
+                        String sku = generator.generate("T-Shirt", "Red", "XL");
+                        generated[i] = Long.parseLong(sku.substring(SKU_PREFIX.length()), 36);
+                    }
+                    return generated;
+                }));
+            }
+            start.countDown();
+            for (Future<long[]> worker : workers) {
+                suffixes.add(worker.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Suffixes rather than the SKU strings themselves, so two million of them fit in a BitSet
+        BitSet seen = new BitSet(threads * perThread + 1);
+        for (long[] generated : suffixes) {
+            for (long suffix : generated) {
+                if (seen.get((int) suffix)) {
+                    fail("Suffix %d was handed out twice", suffix);
+                }
+                seen.set((int) suffix);
+            }
+        }
+        assertThat(seen.cardinality()).isEqualTo(threads * perThread);
+        assertThat(sequence.calls()).isEqualTo(threads * perThread / BLOCK_SIZE);
+    }
+
+    @Test
+    void skuCombinesNormalizedAttributesWithBase36Suffix() {
+        SkuGeneratorImpl generator = new SkuGeneratorImpl(new SequenceJdbcTemplate(BLOCK_SIZE));
+
+        assertThat(generator.generate("t-shirt", "Navy blue", "xl")).isEqualTo("TSHI-NAV-XL-1");
+        assertThat(generator.generate("T-Shirt", "Navy blue", "XL")).isEqualTo("TSHI-NAV-XL-2");
+        assertThat(generator.generate("!!", null, "")).isEqualTo("P-NONE-X-3");
+    }
+}
@@ -0,0 +1,64 @@
+package com.ashanhimantha.product_service.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Header inspection per format. Run with -prof gc to check the allocation per call stays at the
+ * read buffer regardless of image size. Run main() from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageInspectorBenchmark {
+
+    @Param({"jpeg", "jpeg-exif", "png", "webp-lossy", "webp-lossless", "webp-extended"})
+    private String sample;
+
+    private final ImageInspector inspector = new ImageInspector();
+    private byte[] image;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(inspector, "maxDimension", 8000);
+        ReflectionTestUtils.setField(inspector, "maxPixels", 40_000_000L);
+        image = switch (sample) {
+            case "jpeg" -> ImageSamples.encoded("jpg", 1200, 900);
+            case "jpeg-exif" -> ImageSamples.jpeg(0xC0, 64_000, 4000, 3000);
+            case "png" -> ImageSamples.encoded("png", 1200, 900);
+            case "webp-lossy" -> ImageSamples.webpLossy(1200, 900);
+            case "webp-lossless" -> ImageSamples.webpLossless(1200, 900);
+            case "webp-extended" -> ImageSamples.webpExtended(1200, 900);
+            default -> throw new IllegalArgumentException(sample);
+        };
+    }
+
+    @Benchmark
+    public ImageMetadata inspect() throws IOException {
+        return inspector.inspect(new ByteArrayInputStream(image), null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ImageInspectorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ashanhimantha.product_service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageInspectorTest {
+
+    private final ImageInspector inspector = new ImageInspector();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inspector, "maxDimension", 8000);
+        ReflectionTestUtils.setField(inspector, "maxPixels", 40_000_000L);
+    }
+
+    @Test
+    void readsEncodedJpegAndPng() throws IOException {
+        assertThat(inspect(ImageSamples.encoded("jpg", 64, 48), "image/jpeg"))
+                .isEqualTo(new ImageMetadata(ImageFormat.JPEG, 64, 48));
+        assertThat(inspect(ImageSamples.encoded("png", 30, 70), "image/png"))
+                .isEqualTo(new ImageMetadata(ImageFormat.PNG, 30, 70));
+    }
+
+    @Test
+    void skipsJpegSegmentsBeforeTheFrameHeader() throws IOException {
+        assertThat(inspect(ImageSamples.jpeg(0xC0, 60_000, 4000, 3000), "image/jpeg"))
+                .isEqualTo(new ImageMetadata(ImageFormat.JPEG, 4000, 3000));
+        assertThat(inspect(ImageSamples.jpeg(0xC2, 12, 800, 600), "image/jpg")) // Progressive
+                .isEqualTo(new ImageMetadata(ImageFormat.JPEG, 800, 600));
+    }
+
+    @Test
+    void readsEveryWebpVariant() throws IOException {
+        assertThat(inspect(ImageSamples.webpLossy(1024, 768), "image/webp"))
+                .isEqualTo(new ImageMetadata(ImageFormat.WEBP, 1024, 768));
+        assertThat(inspect(ImageSamples.webpLossless(7000, 3), "image/webp"))
+                .isEqualTo(new ImageMetadata(ImageFormat.WEBP, 7000, 3));
+        assertThat(inspect(ImageSamples.webpExtended(5000, 2), "image/webp"))
+                .isEqualTo(new ImageMetadata(ImageFormat.WEBP, 5000, 2));
+    }
+
+    @Test
+    void consumesOnlyTheHeader() throws IOException {
+        byte[] image = ImageSamples.encoded("png", 200, 200);
+        ByteArrayInputStream input = new ByteArrayInputStream(image);
+
+        inspector.inspect(input, null);
+
+        assertThat(image.length - input.available()).isLessThanOrEqualTo(512);
+    }
+
+    @Test
+    void rejectsContentThatDoesNotMatchTheDeclaredType() {
+        assertThatThrownBy(() -> inspect(ImageSamples.encoded("png", 10, 10), "image/jpeg"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("image/png");
+    }
+
+    @Test
+    void rejectsUnknownTruncatedAndOversizedImages() {
+        assertThatThrownBy(() -> inspect("GIF89a".getBytes(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        byte[] png = ImageSamples.encoded("png", 10, 10);
+        assertThatThrownBy(() -> inspect(Arrays.copyOf(png, 12), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("truncated");
+        assertThatThrownBy(() -> inspect(ImageSamples.webpExtended(8001, 10), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceed");
+        assertThatThrownBy(() -> inspect(ImageSamples.webpExtended(8000, 8000), null)) // 64 MP
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceed");
+    }
+
+    private ImageMetadata inspect(byte[] image, String contentType) throws IOException {
+        return inspector.inspect(new ByteArrayInputStream(image), contentType);
+    }
+}
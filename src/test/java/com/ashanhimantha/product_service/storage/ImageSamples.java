@@ -0,0 +1,117 @@
+package com.ashanhimantha.product_service.storage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Image files for the inspector tests and benchmark: real JPEG and PNG encoded by ImageIO, plus
+ * hand-built headers for what ImageIO cannot write (WebP, progressive JPEG, large EXIF blocks).
+ */
+final class ImageSamples {
+
+    private ImageSamples() {
+    }
+
+    static byte[] encoded(String format, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 31) ^ (y * 17));
+            }
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, format, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * JPEG whose frame header (SOFn with the given marker) follows an APP1 segment of exifBytes
+     */
+    static byte[] jpeg(int sofMarker, int exifBytes, int width, int height) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF);
+        out.write(0xD8);
+        out.write(0xFF);
+        out.write(0xE1);
+        u16be(out, exifBytes + 2);
+        out.write(new byte[exifBytes], 0, exifBytes);
+        out.write(0xFF);
+        out.write(0xFF); // Fill byte before the marker code
+        out.write(sofMarker);
+        u16be(out, 17);
+        out.write(8);
+        u16be(out, height);
+        u16be(out, width);
+        out.write(new byte[10], 0, 10);
+        return out.toByteArray();
+    }
+
+    static byte[] webpLossy(int width, int height) {
+        ByteArrayOutputStream out = webpHeader("VP8 ");
+        out.write(0x10);
+        out.write(0x02);
+        out.write(0x00); // Frame tag
+        out.write(0x9D);
+        out.write(0x01);
+        out.write(0x2A);
+        u16le(out, width);
+        u16le(out, height);
+        return out.toByteArray();
+    }
+
+    static byte[] webpLossless(int width, int height) {
+        ByteArrayOutputStream out = webpHeader("VP8L");
+        out.write(0x2F);
+        int bits = (width - 1) | ((height - 1) << 14);
+        out.write(bits);
+        out.write(bits >>> 8);
+        out.write(bits >>> 16);
+        out.write(bits >>> 24);
+        return out.toByteArray();
+    }
+
+    static byte[] webpExtended(int width, int height) {
+        ByteArrayOutputStream out = webpHeader("VP8X");
+        out.write(new byte[4], 0, 4); // Flags and reserved
+        u24le(out, width - 1);
+        u24le(out, height - 1);
+        return out.toByteArray();
+    }
+
+    private static ByteArrayOutputStream webpHeader(String chunk) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("RIFF".getBytes());
+        u32le(out, 1024);
+        out.writeBytes("WEBP".getBytes());
+        out.writeBytes(chunk.getBytes());
+        u32le(out, 10);
+        return out;
+    }
+
+    private static void u16be(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void u16le(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+    }
+
+    private static void u24le(ByteArrayOutputStream out, int value) {
+        u16le(out, value);
+        out.write(value >>> 16);
+    }
+
+    private static void u32le(ByteArrayOutputStream out, int value) {
+        u24le(out, value);
+        out.write(value >>> 24);
+    }
+}
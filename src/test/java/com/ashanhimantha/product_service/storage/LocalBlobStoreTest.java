@@ -0,0 +1,72 @@
+package com.ashanhimantha.product_service.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void storedBlobCanBeStatedReadListedAndDeleted() throws IOException {
+        LocalBlobStore store = store();
+        byte[] content = {1, 2, 3, 4, 5};
+
+        store.put("blobs/abc.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        BlobInfo info = store.stat("blobs/abc.png").orElseThrow();
+        assertThat(info.getSize()).isEqualTo(5);
+        assertThat(info.getContentType()).isEqualTo("image/png");
+        try (InputStream in = store.open("blobs/abc.png")) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        try (Stream<BlobInfo> listed = store.list("blobs/")) {
+            assertThat(listed).extracting(BlobInfo::getKey).containsExactly("blobs/abc.png");
+        }
+        assertThat(store.deleteAll(List.of("blobs/abc.png", "blobs/missing.png"))).isEmpty();
+        assertThat(store.stat("blobs/abc.png")).isEmpty();
+    }
+
+    @Test
+    void truncatedUploadLeavesNothingBehind() throws IOException {
+        LocalBlobStore store = store();
+
+        assertThatThrownBy(() -> store.put("blobs/short.png", new ByteArrayInputStream(new byte[3]), 10, "image/png"))
+                .isInstanceOf(IOException.class);
+
+        try (Stream<Path> files = Files.walk(tempDir.resolve("blobs"))) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void keysThatEscapeTheRootAreRejected() throws IOException {
+        LocalBlobStore store = store();
+        Path root = tempDir.resolve("blobs");
+
+        assertThat(store.resolve("a/../b.png")).isEqualTo(root.resolve("b.png"));
+        for (String key : List.of("../outside.png", "a/../../outside.png", "../blobs-sibling/x.png", "/etc/passwd")) {
+            assertThatThrownBy(() -> store.resolve(key)).as(key).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> store.put("../outside.png", new ByteArrayInputStream(new byte[1]), 1, "image/png"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.deleteAll(List.of("../outside.png"))).containsKey("../outside.png");
+        assertThat(Files.exists(tempDir.resolve("outside.png"))).isFalse();
+    }
+
+    private LocalBlobStore store() throws IOException {
+        return new LocalBlobStore(tempDir.resolve("blobs").toString(), "http://localhost:8081");
+    }
+}
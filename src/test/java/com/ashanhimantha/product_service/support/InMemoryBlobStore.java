@@ -0,0 +1,104 @@
+package com.ashanhimantha.product_service.support;
+
+import com.ashanhimantha.product_service.storage.BlobInfo;
+import com.ashanhimantha.product_service.storage.BlobStore;
+import com.ashanhimantha.product_service.storage.PresignedUpload;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * BlobStore backed by a map. Keys added to failingKeys fail to store and to delete, and beforeDelete runs at
+ * the start of every deleteAll, so tests can act while the caller is between its checks and the delete.
+ */
+public class InMemoryBlobStore implements BlobStore {
+
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+    private final Set<String> failingKeys = ConcurrentHashMap.newKeySet();
+    private volatile Runnable beforeDelete = () -> { };
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        if (failingKeys.contains(key)) {
+            throw new IOException("Simulated failure");
+        }
+        blobs.put(key, content.readNBytes((int) contentLength));
+        contentTypes.put(key, contentType);
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) {
+        byte[] blob = blobs.get(key);
+        return blob == null ? Optional.empty() : Optional.of(new BlobInfo(key, blob.length, contentTypes.get(key), Instant.EPOCH));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        byte[] blob = blobs.get(key);
+        if (blob == null) {
+            throw new NoSuchFileException(key);
+        }
+        return new ByteArrayInputStream(blob);
+    }
+
+    @Override
+    public Map<String, String> deleteAll(Collection<String> keys) {
+        beforeDelete.run();
+        Map<String, String> failedKeys = new HashMap<>();
+        for (String key : keys) {
+            if (failingKeys.contains(key)) {
+                failedKeys.put(key, "Simulated failure");
+            } else {
+                blobs.remove(key);
+                contentTypes.remove(key);
+            }
+        }
+        return failedKeys;
+    }
+
+    @Override
+    public Stream<BlobInfo> list(String prefix) {
+        return blobs.keySet().stream().filter(key -> key.startsWith(prefix)).map(this::stat).flatMap(Optional::stream);
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return "memory://" + key;
+    }
+
+    @Override
+    public PresignedUpload presignPut(String key, String contentType, long contentLength, Duration expiry) {
+        throw new IllegalStateException("Direct uploads are not supported in memory");
+    }
+
+    public boolean contains(String key) {
+        return blobs.containsKey(key);
+    }
+
+    public Set<String> failingKeys() {
+        return failingKeys;
+    }
+
+    public void beforeDelete(Runnable action) {
+        this.beforeDelete = action;
+    }
+
+    public void clear() {
+        blobs.clear();
+        contentTypes.clear();
+        failingKeys.clear();
+        beforeDelete = () -> { };
+    }
+}
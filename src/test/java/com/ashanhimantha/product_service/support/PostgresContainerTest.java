@@ -0,0 +1,32 @@
+package com.ashanhimantha.product_service.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base class for tests against a real PostgreSQL, migrated by Flyway and configured like
+ * application-docker.properties. Skipped when no Docker daemon is available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresContainerTest {
+
+    @Container
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.hikari.data-source-properties.reWriteBatchedInserts", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.id.optimizer.pooled.preferred", () -> "pooled-lo");
+        registry.add("spring.jpa.properties.hibernate.jdbc.batch_size", () -> "50");
+        registry.add("spring.jpa.properties.hibernate.order_inserts", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.order_updates", () -> "true");
+    }
+}
@@ -0,0 +1,30 @@
+package com.ashanhimantha.product_service.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JdbcTemplate without a database that answers every single-value query like nextval() on a sequence
+ * with the given INCREMENT BY, and counts the calls.
+ */
+public class SequenceJdbcTemplate extends JdbcTemplate {
+
+    private final long increment;
+    private final AtomicLong value = new AtomicLong(1);
+    private final AtomicLong calls = new AtomicLong();
+
+    public SequenceJdbcTemplate(long increment) {
+        this.increment = increment;
+    }
+
+    public long calls() {
+        return calls.get();
+    }
+
+    @Override
+    public <T> T queryForObject(String sql, Class<T> requiredType) {
+        calls.incrementAndGet();
+        return requiredType.cast(value.getAndAdd(increment));
+    }
+}
@@ -0,0 +1,52 @@
+package com.ashanhimantha.product_service.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts database round trips through the application DataSource: every statement execution counts
+ * once, and so does a whole JDBC batch. Register with @Import(StatementCounter.class).
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private final AtomicLong executions = new AtomicLong();
+
+    public long count() {
+        return executions.get();
+    }
+
+    public void reset() {
+        executions.set(0);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource ? wrap(DataSource.class, bean) : bean;
+    }
+
+    private Object wrap(Class<?> type, Object target) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                executions.incrementAndGet();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // Follow DataSource -> Connection -> (Prepared|Callable)Statement
+            if ((target instanceof DataSource && result instanceof Connection)
+                    || (target instanceof Connection && result instanceof Statement)) {
+                return wrap(method.getReturnType(), result);
+            }
+            return result;
+        });
+    }
+}